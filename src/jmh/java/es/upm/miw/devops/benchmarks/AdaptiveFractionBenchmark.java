@@ -0,0 +1,99 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.AdaptiveFraction;
+import es.upm.miw.devops.code.FractionAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Run with -prof gc to compare the allocation rate per operation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveFractionBenchmark {
+
+    private static final int SIZE = 1_000;
+
+    private final int[] numerators = new int[SIZE];
+    private final int[] denominators = new int[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            this.numerators[i] = random.nextInt(-20, 21);
+            this.denominators[i] = random.nextInt(1, 13);
+        }
+    }
+
+    @Benchmark
+    public long plainLong() {
+        long numerator = 0;
+        long denominator = 1;
+        for (int i = 0; i < SIZE; i++) {
+            long gcd = gcd(denominator, this.denominators[i]);
+            numerator = numerator * (this.denominators[i] / gcd) + this.numerators[i] * (denominator / gcd);
+            denominator = denominator / gcd * this.denominators[i];
+            long reduce = gcd(Math.abs(numerator), denominator);
+            numerator /= reduce;
+            denominator /= reduce;
+        }
+        return numerator ^ denominator;
+    }
+
+    @Benchmark
+    public AdaptiveFraction adaptive() {
+        AdaptiveFraction result = AdaptiveFraction.ZERO;
+        for (int i = 0; i < SIZE; i++) {
+            result = result.add(AdaptiveFraction.of(this.numerators[i], this.denominators[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public AdaptiveFraction accumulator() {
+        FractionAccumulator accumulator = new FractionAccumulator();
+        for (int i = 0; i < SIZE; i++) {
+            accumulator.add(this.numerators[i], this.denominators[i]);
+        }
+        return accumulator.toAdaptiveFraction();
+    }
+
+    @Benchmark
+    public BigInteger[] bigInteger() {
+        BigInteger numerator = BigInteger.ZERO;
+        BigInteger denominator = BigInteger.ONE;
+        for (int i = 0; i < SIZE; i++) {
+            BigInteger otherDenominator = BigInteger.valueOf(this.denominators[i]);
+            numerator = numerator.multiply(otherDenominator).add(BigInteger.valueOf(this.numerators[i]).multiply(denominator));
+            denominator = denominator.multiply(otherDenominator);
+            BigInteger gcd = numerator.gcd(denominator);
+            numerator = numerator.divide(gcd);
+            denominator = denominator.divide(gcd);
+        }
+        return new BigInteger[]{numerator, denominator};
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
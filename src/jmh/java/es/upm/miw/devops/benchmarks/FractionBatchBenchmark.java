@@ -0,0 +1,64 @@
+package es.upm.miw.devops.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import es.upm.miw.devops.rest.FractionBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Fraction operations per second through the batch parser and writer, without the HTTP layer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionBatchBenchmark {
+
+    private static final int OPERATIONS = 10_000;
+    private static final String[] NAMES = {"add", "multiply", "divide", "equivalent", "proper", "improper"};
+
+    private final FractionBatch fractionBatch = new FractionBatch(new JsonFactory());
+    private byte[] batch;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < OPERATIONS; i++) {
+            String name = NAMES[i % NAMES.length];
+            builder.append("{\"operation\":\"").append(name).append("\",\"operands\":[");
+            builder.append(fraction(random));
+            if (!name.endsWith("proper")) {
+                builder.append(',').append(fraction(random));
+            }
+            builder.append("]}\n");
+        }
+        this.batch = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String fraction(Random random) {
+        return "{\"numerator\":" + random.nextInt(-1_000, 1_000) + ",\"denominator\":" + random.nextInt(1, 1_000) + "}";
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long batch() throws IOException {
+        return this.fractionBatch.process(new ByteArrayInputStream(this.batch), OutputStream.nullOutputStream());
+    }
+}
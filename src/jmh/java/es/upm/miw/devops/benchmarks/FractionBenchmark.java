@@ -0,0 +1,75 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Cycles through pregenerated operands so the JIT cannot fold a constant pair
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionBenchmark {
+
+    private static final int SIZE = 1 << 10;
+
+    private final Fraction[] left = new Fraction[SIZE];
+    private final Fraction[] right = new Fraction[SIZE];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            this.left[i] = new Fraction(nonZero(random), random.nextInt(1, 1_000));
+            this.right[i] = new Fraction(nonZero(random), random.nextInt(1, 1_000));
+        }
+    }
+
+    private static int nonZero(Random random) {
+        int value = random.nextInt(-999, 999);
+        return value >= 0 ? value + 1 : value;
+    }
+
+    private int next() {
+        this.index = this.index + 1 & SIZE - 1;
+        return this.index;
+    }
+
+    @Benchmark
+    public Fraction add() {
+        int i = this.next();
+        return this.left[i].add(this.right[i]);
+    }
+
+    @Benchmark
+    public Fraction multiply() {
+        int i = this.next();
+        return this.left[i].multiply(this.right[i]);
+    }
+
+    @Benchmark
+    public Fraction divide() {
+        int i = this.next();
+        return this.left[i].divide(this.right[i]);
+    }
+
+    @Benchmark
+    public boolean isEquivalent() {
+        int i = this.next();
+        return this.left[i].isEquivalent(this.right[i]);
+    }
+}
@@ -0,0 +1,67 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Worst case scan: every fraction is improper, so the boxed anyProper visits all of them;
+// the columnar side answers from the proper-fraction counter kept by User
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FractionColumnsBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int FRACTIONS_PER_USER = 100;
+
+    private List<List<Fraction>> boxed;
+    private List<User> columnar;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.boxed = new ArrayList<>(USERS);
+        this.columnar = new ArrayList<>(USERS);
+        for (int user = 0; user < USERS; user++) {
+            List<Fraction> fractions = new ArrayList<>(FRACTIONS_PER_USER);
+            for (int i = 0; i < FRACTIONS_PER_USER; i++) {
+                int denominator = random.nextInt(1, 100);
+                fractions.add(new Fraction(denominator + random.nextInt(1, 100), denominator));
+            }
+            this.boxed.add(fractions);
+            this.columnar.add(new User(String.valueOf(user), "name", "familyName", fractions));
+        }
+    }
+
+    @Benchmark
+    public long boxedListScan() {
+        return this.boxed.stream()
+                .filter(fractions -> fractions.stream().filter(Objects::nonNull).anyMatch(Fraction::isProper))
+                .count();
+    }
+
+    @Benchmark
+    public long columnarScan() {
+        return this.columnar.stream()
+                .filter(User::hasProperFraction)
+                .count();
+    }
+}
@@ -0,0 +1,104 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UserFraction;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Range, top-K and rank queries through the fraction index against the scans calling decimal() they replace,
+// and what keeping the index current adds to a write
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FractionIndexBenchmark {
+
+    private static final Fraction MIN = new Fraction(1, 3);
+    private static final Fraction MAX = new Fraction(1, 2);
+    private static final int K = 10;
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"4"})
+    private int fractionsPerUser;
+
+    private UsersDatabase indexed;
+    private UsersDatabase unindexed;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Users of their own each, as addFraction appends to the stored ones
+        this.indexed = new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser));
+        this.indexed.fractionCount();
+        this.unindexed = new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser));
+    }
+
+    @Benchmark
+    public long rangeScan() {
+        return this.indexed.findAll()
+                .filter(user -> user.getFractions().stream()
+                        .anyMatch(fraction -> fraction.decimal() >= MIN.decimal() && fraction.decimal() <= MAX.decimal()))
+                .count();
+    }
+
+    @Benchmark
+    public long rangeIndexed() {
+        return this.indexed.findBySomeFractionBetween(MIN, MAX).count();
+    }
+
+    @Benchmark
+    public List<Fraction> largestScan() {
+        return this.indexed.findAll()
+                .flatMap(user -> user.getFractions().stream())
+                .sorted(Comparator.comparingDouble(Fraction::decimal).reversed())
+                .limit(K)
+                .toList();
+    }
+
+    @Benchmark
+    public List<UserFraction> largestIndexed() {
+        return this.indexed.findLargestFractions(K);
+    }
+
+    @Benchmark
+    public long rankScan() {
+        return this.indexed.findAll()
+                .flatMap(user -> user.getFractions().stream())
+                .filter(fraction -> fraction.decimal() < MAX.decimal())
+                .count();
+    }
+
+    @Benchmark
+    public int rankIndexed() {
+        return this.indexed.countFractionsBelow(MAX);
+    }
+
+    @Benchmark
+    public User addFractionIndexed() {
+        return this.indexed.addFraction(UsersGenerator.id(this.next++ % this.users), MIN).orElseThrow();
+    }
+
+    @Benchmark
+    public User addFractionUnindexed() {
+        return this.unindexed.addFraction(UsersGenerator.id(this.next++ % this.users), MIN).orElseThrow();
+    }
+}
@@ -0,0 +1,64 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionReductionBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Fraction> fractions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.fractions = IntStream.range(0, this.size)
+                .mapToObj(i -> new Fraction(random.nextInt(-20, 21), random.nextInt(1, 13)))
+                .toList();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class OperandSize {
+        public long maxDenominator;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.maxDenominator = 0;
+        }
+    }
+
+    @Benchmark
+    public Fraction reduceAdd(OperandSize operandSize) {
+        Fraction result = new Fraction(0, 1);
+        for (Fraction fraction : this.fractions) {
+            result = result.add(fraction);
+            operandSize.maxDenominator = Math.max(operandSize.maxDenominator, result.getDenominator());
+        }
+        return result;
+    }
+}
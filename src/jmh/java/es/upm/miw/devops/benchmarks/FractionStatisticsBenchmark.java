@@ -0,0 +1,82 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.FractionStatistics;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// A dashboard refresh (distinct count, median, top users) from the sketches against the exact scans,
+// and what keeping the sketches current adds to a write
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FractionStatisticsBenchmark {
+
+    private static final int TOP = 10;
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"4"})
+    private int fractionsPerUser;
+
+    private UsersDatabase sketched;
+    private UsersDatabase plain;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<User> generated = UsersGenerator.generate(this.users, this.fractionsPerUser);
+        this.sketched = new UsersDatabase(generated);
+        this.sketched.statistics();
+        this.plain = new UsersDatabase(generated);
+    }
+
+    @Benchmark
+    public Object[] dashboardScan() {
+        long distinct = this.sketched.findAll().flatMap(user -> user.getFractions().stream()).distinct().count();
+        double[] decimals = this.sketched.findAll().flatMap(user -> user.getFractions().stream())
+                .mapToDouble(Fraction::decimal).filter(decimal -> !Double.isNaN(decimal)).sorted().toArray();
+        List<String> top = this.sketched.findAll()
+                .collect(Collectors.toMap(User::getId, user -> user.getFractions().size()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(TOP).map(Map.Entry::getKey).toList();
+        return new Object[]{distinct, decimals[decimals.length / 2], top};
+    }
+
+    @Benchmark
+    public Object[] dashboardSketched() {
+        FractionStatistics statistics = this.sketched.statistics();
+        return new Object[]{statistics.distinctFractions(), statistics.quantile(0.5), statistics.heavyHitters(TOP)};
+    }
+
+    @Benchmark
+    public User addFractionSketched() {
+        return this.sketched.addFraction(UsersGenerator.id(this.next++ % this.users), new Fraction(1, 3)).orElseThrow();
+    }
+
+    @Benchmark
+    public User addFractionPlain() {
+        return this.plain.addFraction(UsersGenerator.id(this.next++ % this.users), new Fraction(1, 3)).orElseThrow();
+    }
+}
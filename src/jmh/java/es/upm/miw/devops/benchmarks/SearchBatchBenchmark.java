@@ -0,0 +1,75 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.SearchBatch;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The reporting job: proper ids, improper family names and every user's sum, one search after the other or batched
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SearchBatchBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"4"})
+    private int fractionsPerUser;
+
+    private UsersDatabase usersDatabase;
+    private Searches searches;
+
+    @Setup
+    public void setUp() {
+        this.usersDatabase = new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser));
+        this.searches = new Searches(this.usersDatabase);
+    }
+
+    @Benchmark
+    public void separate(Blackhole blackhole) {
+        blackhole.consume(this.searches.findUserIdBySomeProperFraction().toList());
+        blackhole.consume(this.searches.findUserFamilyNameBySomeImproperFraction().toList());
+        Map<String, Fraction> sums = new LinkedHashMap<>();
+        this.usersDatabase.findAll().map(User::getId).forEach(id -> {
+            Fraction sum = this.searches.findFractionAdditionByUserId(id);
+            if (sum != null) {
+                sums.put(id, sum);
+            }
+        });
+        blackhole.consume(sums);
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        SearchBatch batch = this.searches.batch();
+        SearchBatch.Query<List<String>> ids = batch.userIdsBySomeProperFraction();
+        SearchBatch.Query<List<String>> familyNames = batch.userFamilyNamesBySomeImproperFraction();
+        SearchBatch.Query<Map<String, Fraction>> sums = batch.fractionAdditionByUser();
+        batch.run();
+        blackhole.consume(ids.result());
+        blackhole.consume(familyNames.result());
+        blackhole.consume(sums.result());
+    }
+}
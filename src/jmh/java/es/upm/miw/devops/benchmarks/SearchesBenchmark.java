@@ -0,0 +1,63 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Every name is shared by users / NAMES users, so the subtraction grows with the dataset as well
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class SearchesBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int users;
+
+    @Param({"4"})
+    private int fractionsPerUser;
+
+    private Searches searches;
+    private String id;
+
+    @Setup
+    public void setUp() {
+        this.searches = new Searches(new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser)));
+        this.id = UsersGenerator.id(this.users / 2);
+    }
+
+    @Benchmark
+    public Fraction fractionAdditionByUserId() {
+        return this.searches.findFractionAdditionByUserId(this.id);
+    }
+
+    @Benchmark
+    public long userIdBySomeProperFraction() {
+        return this.searches.findUserIdBySomeProperFraction().count();
+    }
+
+    @Benchmark
+    public long userFamilyNameBySomeImproperFraction() {
+        return this.searches.findUserFamilyNameBySomeImproperFraction().count();
+    }
+
+    @Benchmark
+    public Fraction fractionSubtractionByUserName() {
+        return this.searches.findFractionSubtractionByUserName("name7");
+    }
+}
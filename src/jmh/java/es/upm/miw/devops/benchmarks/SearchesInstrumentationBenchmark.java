@@ -0,0 +1,67 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.metrics.MicrometerSearchesListener;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The cheapest searches (single users lookup, small pages) show the fixed cost per call the most
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchesInstrumentationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private Searches searches;
+    private String id;
+
+    @Setup
+    public void setUp() {
+        UsersDatabase usersDatabase = new UsersDatabase(UsersGenerator.generate(10_000, 4));
+        this.searches = this.instrumented
+                ? new Searches(usersDatabase, false,
+                new MicrometerSearchesListener(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)))
+                : new Searches(usersDatabase);
+        this.id = UsersGenerator.id(5_000);
+    }
+
+    @Benchmark
+    public Fraction fractionAdditionByUserId() {
+        return this.searches.findFractionAdditionByUserId(this.id);
+    }
+
+    @Benchmark
+    public Fraction fractionSubtractionByUserName() {
+        return this.searches.findFractionSubtractionByUserName("name7");
+    }
+
+    @Benchmark
+    public long userIdBySomeProperFractionPage() {
+        return this.searches.findUserBySomeProperFraction(this.id).limit(100).count();
+    }
+
+    @Benchmark
+    public long userFamilyNameBySomeImproperFraction() {
+        return this.searches.findUserFamilyNameBySomeImproperFraction().count();
+    }
+}
@@ -0,0 +1,59 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// threads = 0 runs the sequential mode; otherwise the parallel mode runs inside a pool of that size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchesScalingBenchmark {
+
+    @Param({"0", "1", "2", "4", "8", "16"})
+    private int threads;
+
+    private Searches searches;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Searches sequential = new Searches(new UsersDatabase(UsersGenerator.generate(1_000_000, 10)));
+        this.searches = this.threads == 0 ? sequential : sequential.parallel();
+        this.pool = new ForkJoinPool(Math.max(1, this.threads));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public List<String> userIdBySomeProperFraction() {
+        return this.pool.submit(() -> this.searches.findUserIdBySomeProperFraction().toList()).join();
+    }
+
+    @Benchmark
+    public Fraction fractionSubtractionByUserName() {
+        return this.pool.submit(() -> this.searches.findFractionSubtractionByUserName("name7")).join();
+    }
+}
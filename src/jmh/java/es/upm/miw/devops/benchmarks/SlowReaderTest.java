@@ -0,0 +1,98 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.Application;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersSnapshot;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/*
+ * One client reads millions of search results, pausing between 8 KiB reads, from the streamed (/searches) and the
+ * reactive (/reactive/searches) endpoints. Every tenth of the response it collects and prints the live heap: it stays
+ * flat when the server only scans as fast as the client reads.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec@slow-reader -Dslow-reader.args="users readPauseMillis"
+ */
+public final class SlowReaderTest {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/searches/user-ids/proper-fraction",
+            "/reactive/searches/user-ids/proper-fraction");
+    private static final int READ_CHUNK = 8 * 1024;
+    private static final int STEPS = 10;
+    private static final long MB = 1024 * 1024;
+
+    private SlowReaderTest() {
+        // utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int readPauseMillis = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        Path snapshot = Files.createTempFile("users", ".snapshot");
+        try {
+            UsersSnapshot.write(new UsersDatabase(UsersGenerator.generate(users, 4)), snapshot);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .run("--server.port=0", "--miw.users.snapshot=" + snapshot, "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN", "--logging.level.es.upm.miw=WARN")) {
+                String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                long expectedLines = countLines(httpClient, URI.create(base + ENDPOINTS.get(0)), 0, 0);
+                System.out.printf("%-45s %8s %12s %12s%n", "endpoint", "seconds", "lines", "live MB");
+                for (String endpoint : ENDPOINTS) {
+                    countLines(httpClient, URI.create(base + endpoint), expectedLines, readPauseMillis);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static long countLines(HttpClient httpClient, URI uri, long expectedLines, int readPauseMillis)
+            throws Exception {
+        HttpResponse<InputStream> response = httpClient.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        long start = System.nanoTime();
+        long lines = 0;
+        long nextReport = expectedLines / STEPS;
+        byte[] buffer = new byte[READ_CHUNK];
+        try (InputStream body = response.body()) {
+            for (int read = body.read(buffer); read >= 0; read = body.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (expectedLines > 0 && lines >= nextReport) {
+                    report(uri, start, lines);
+                    nextReport += expectedLines / STEPS;
+                }
+                if (readPauseMillis > 0) {
+                    Thread.sleep(readPauseMillis);
+                }
+            }
+        }
+        if (expectedLines > 0 && lines != expectedLines) {
+            throw new IllegalStateException(uri + " returned " + lines + " lines, expected " + expectedLines);
+        }
+        return lines;
+    }
+
+    private static void report(URI uri, long start, long lines) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.gc();
+        System.out.printf("%-45s %8.1f %12d %12d%n", uri.getPath(), seconds, lines,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MB);
+    }
+}
@@ -0,0 +1,141 @@
+package es.upm.miw.devops.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * Starts the packaged application again and again, each time in a fresh JVM, and reports the median time from launch
+ * until /actuator/health answers and the resident memory (Linux) at that moment:
+ * - jar: java -jar, as the image did before
+ * - aot: the extracted jar with Spring AOT bean definitions (needs a jar packaged with -Pfast-start)
+ * - aot+cds: the same with the class-data-sharing archive of a training run, as the Dockerfile does
+ *
+ * mvn -Pfast-start package -DskipTests
+ * mvn -Pbenchmarks test-compile exec:exec@startup -Dstartup.args="target/app.jar runs"
+ */
+public final class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+        // utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        Path directory = Files.createTempDirectory("startup");
+        Path application = directory.resolve("application");
+        run(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", application.toString()));
+        Path extracted;
+        try (Stream<Path> files = Files.list(application)) {
+            extracted = files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElseThrow();
+        }
+        Path archive = directory.resolve("application.jsa");
+        // Training run: refreshes the context and exits, writing every class it loaded to the archive
+        run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true",
+                "-Dspring.context.exit=onRefresh", "-jar", extracted.toString()));
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jar", List.of(java, "-jar", jar.toString()));
+        modes.put("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+        modes.put("aot+cds", List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                "-jar", extracted.toString()));
+
+        System.out.printf("%-10s %14s %14s%n", "mode", "ready ms p50", "RSS MiB p50");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            long[] readyMillis = new long[runs];
+            long[] rssKib = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] sample = start(mode.getValue());
+                readyMillis[i] = sample[0];
+                rssKib[i] = sample[1];
+            }
+            long rss = median(rssKib);
+            System.out.printf("%-10s %14d %14s%n", mode.getKey(), median(readyMillis),
+                    rss < 0 ? "n/a" : String.valueOf(rss / 1024));
+        }
+    }
+
+    // {milliseconds until ready, RSS in KiB or -1}
+    private static long[] start(List<String> command) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(100)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - start > READY_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Application not ready in " + READY_TIMEOUT + ": " + command);
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException notListeningYet) {
+                    // polled again below
+                }
+                Thread.sleep(5);
+            }
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{readyMillis, rssKib(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long rssKib(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst().orElse(-1);
+        }
+    }
+
+    private static void run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Failed with " + process.exitValue() + ": " + command);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
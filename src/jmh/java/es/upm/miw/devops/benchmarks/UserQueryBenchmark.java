@@ -0,0 +1,91 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.CompiledUserQuery;
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static es.upm.miw.devops.code.FractionFilter.fractions;
+import static es.upm.miw.devops.code.UserQuery.users;
+
+// Each compiled query against the stream pipeline that would be written by hand in Searches for the same question
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class UserQueryBenchmark {
+
+    private static final Fraction EQUIVALENT = new Fraction(7, 3);
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"4"})
+    private int fractionsPerUser;
+
+    private UsersDatabase usersDatabase;
+    private Searches searches;
+    private CompiledUserQuery proper;
+    private CompiledUserQuery nameAndDecimal;
+    private CompiledUserQuery equivalent;
+
+    @Setup
+    public void setUp() {
+        this.usersDatabase = new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser));
+        this.searches = new Searches(this.usersDatabase);
+        this.proper = users().withSomeFraction(fractions().proper()).compile();
+        this.nameAndDecimal = users().name("name7").withSomeFraction(fractions().decimalBetween(0.25, 0.5)).compile();
+        this.equivalent = users().withSomeFraction(fractions().equivalentTo(EQUIVALENT)).compile();
+    }
+
+    @Benchmark
+    public long properHandWritten() {
+        return this.searches.findUserIdBySomeProperFraction().count();
+    }
+
+    @Benchmark
+    public long properCompiled() {
+        return this.searches.find(this.proper).count();
+    }
+
+    @Benchmark
+    public long nameAndDecimalHandWritten() {
+        return this.usersDatabase.findAll()
+                .filter(user -> "name7".equals(user.getName()))
+                .filter(user -> user.getFractions().stream()
+                        .anyMatch(fraction -> fraction.decimal() >= 0.25 && fraction.decimal() <= 0.5))
+                .count();
+    }
+
+    @Benchmark
+    public long nameAndDecimalCompiled() {
+        return this.searches.find(this.nameAndDecimal).count();
+    }
+
+    @Benchmark
+    public long equivalentHandWritten() {
+        return this.usersDatabase.findAll()
+                .filter(user -> user.getFractions().stream().anyMatch(EQUIVALENT::isEquivalent))
+                .count();
+    }
+
+    @Benchmark
+    public long equivalentCompiled() {
+        return this.searches.find(this.equivalent).count();
+    }
+}
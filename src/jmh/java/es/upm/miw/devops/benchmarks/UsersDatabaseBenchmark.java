@@ -0,0 +1,43 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsersDatabaseBenchmark {
+
+    private Searches sharedSearches;
+
+    @Setup
+    public void setUp() {
+        this.sharedSearches = new Searches(new UsersDatabase());
+    }
+
+    @Benchmark
+    public List<String> perCallConstruction() {
+        return new Searches(new UsersDatabase()).findUserIdBySomeProperFraction().toList();
+    }
+
+    @Benchmark
+    public List<String> sharedDatabase() {
+        return this.sharedSearches.findUserIdBySomeProperFraction().toList();
+    }
+}
@@ -0,0 +1,79 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Writers adding fractions to random users while readers look users up. Run the write throughput with
+ * -t 1, 2, 4... to see it scale with the writer threads; the mixed group samples the latency of a reader running
+ * next to three writers.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UsersDatabaseContentionBenchmark {
+
+    @Param({"100000"})
+    private int users;
+
+    private UsersDatabase usersDatabase;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setUp() {
+        this.usersDatabase = new UsersDatabase(UsersGenerator.generate(this.users, 4));
+    }
+
+    private Optional<User> addFraction(ThreadState state) {
+        return this.usersDatabase.addFraction(UsersGenerator.id(state.random.nextInt(this.users)),
+                new Fraction(state.random.nextInt(-20, 21), state.random.nextInt(1, 13)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Optional<User> write(ThreadState state) {
+        return this.addFraction(state);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<User> mixedWrite(ThreadState state) {
+        return this.addFraction(state);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<User> mixedRead(ThreadState state) {
+        return this.usersDatabase.findById(UsersGenerator.id(state.random.nextInt(this.users)));
+    }
+}
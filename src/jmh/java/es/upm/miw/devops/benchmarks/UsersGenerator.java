@@ -0,0 +1,34 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class UsersGenerator {
+
+    public static final int NAMES = 100;
+
+    private UsersGenerator() {
+        // utility class
+    }
+
+    public static List<User> generate(int users, int fractionsPerUser) {
+        Random random = new Random(42);
+        List<User> generated = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            List<Fraction> fractions = new ArrayList<>(fractionsPerUser);
+            for (int j = 0; j < fractionsPerUser; j++) {
+                fractions.add(new Fraction(random.nextInt(-20, 21), random.nextInt(1, 13)));
+            }
+            generated.add(new User(id(i), "name" + i % NAMES, "familyName" + i, fractions));
+        }
+        return generated;
+    }
+
+    public static String id(int index) {
+        return String.format("%09d", index);
+    }
+}
@@ -0,0 +1,61 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Time to first answer after a restart: snapshot read plus one indexed query
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UsersSnapshotBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    @Param({"4", "64"})
+    private int fractionsPerUser;
+
+    @Param({"true", "false"})
+    private boolean verifyAll;
+
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.snapshot = Files.createTempFile("users", ".snapshot");
+        UsersSnapshot.write(new UsersDatabase(UsersGenerator.generate(this.users, this.fractionsPerUser)), this.snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.snapshot);
+    }
+
+    @Benchmark
+    public Object readAndFirstQuery() throws IOException {
+        Searches searches = new Searches(UsersSnapshot.read(this.snapshot, this.verifyAll));
+        return searches.findFractionAdditionByUserId(UsersGenerator.id(this.users / 2));
+    }
+}
@@ -0,0 +1,143 @@
+package es.upm.miw.devops.benchmarks;
+
+import es.upm.miw.devops.Application;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersSnapshot;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Closed-loop load test: starts the application once per profile (dev: platform threads, prod: virtual threads)
+ * and drives every endpoint with a fixed number of clients. Slow clients pause between 8 KiB reads, so a streamed
+ * response keeps its server thread busy for as long as the client takes to read it.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec@load-test -Dload.args="users clients seconds readPauseMillis"
+ */
+public final class WebLoadTest {
+
+    private static final List<String> PROFILES = List.of("dev", "prod");
+    private static final int READ_CHUNK = 8 * 1024;
+
+    private WebLoadTest() {
+        // utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int readPauseMillis = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        List<String> endpoints = List.of(
+                "/version-badge",
+                "/searches/fraction-addition/" + UsersGenerator.id(users / 2),
+                "/searches/fraction-subtraction?name=name7",
+                "/searches/user-ids/proper-fraction?limit=5000");
+
+        Path snapshot = Files.createTempFile("users", ".snapshot");
+        try {
+            UsersSnapshot.write(new UsersDatabase(UsersGenerator.generate(users, 4)), snapshot);
+            System.out.printf("%-8s %-45s %10s %10s %10s %8s%n", "profile", "endpoint", "req/s", "p50 ms", "p99 ms",
+                    "errors");
+            for (String profile : PROFILES) {
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                        .run("--spring.profiles.active=" + profile, "--server.port=0", "--miw.users.snapshot=" + snapshot,
+                                "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                                "--logging.level.es.upm.miw=WARN")) {
+                    String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    for (String endpoint : endpoints) {
+                        Result result = run(URI.create(base + endpoint), clients, Duration.ofSeconds(seconds),
+                                readPauseMillis);
+                        System.out.printf("%-8s %-45s %10.1f %10.2f %10.2f %8d%n", profile, endpoint,
+                                result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                                result.errors());
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static Result run(URI uri, int clients, Duration duration, int readPauseMillis) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(1)).build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> latencies = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                latencies.add(executor.submit(() -> client(httpClient, request, deadline, readPauseMillis, errors)));
+            }
+        }
+        List<long[]> all = new ArrayList<>(clients);
+        for (Future<long[]> future : latencies) {
+            all.add(future.get());
+        }
+        long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(merged, duration, errors.get());
+    }
+
+    private static long[] client(HttpClient httpClient, HttpRequest request, long deadline, int readPauseMillis,
+                                 AtomicLong errors) throws InterruptedException {
+        long[] latencies = new long[64];
+        int count = 0;
+        byte[] buffer = new byte[READ_CHUNK];
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    while (body.readNBytes(buffer, 0, READ_CHUNK) == READ_CHUNK) {
+                        Thread.sleep(readPauseMillis);
+                    }
+                }
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException exception) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private record Result(long[] sortedLatencies, Duration duration, long errors) {
+        double throughput() {
+            return this.sortedLatencies.length / (this.duration.toNanos() / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (this.sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * this.sortedLatencies.length) - 1;
+            return this.sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
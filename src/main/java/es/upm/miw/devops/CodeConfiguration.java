@@ -0,0 +1,60 @@
+package es.upm.miw.devops;
+
+import es.upm.miw.devops.code.CachingSearches;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersSnapshot;
+import es.upm.miw.devops.metrics.MicrometerSearchesListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class CodeConfiguration {
+
+    @Value("${miw.users.snapshot:}")
+    private String snapshot;
+
+    @Bean
+    public UsersDatabase usersDatabase() throws IOException {
+        if (!this.snapshot.isBlank() && Files.exists(Path.of(this.snapshot))) {
+            return UsersSnapshot.read(Path.of(this.snapshot));
+        }
+        return new UsersDatabase();
+    }
+
+    @Bean
+    public DisposableBean usersSnapshotWriter(UsersDatabase usersDatabase) {
+        return () -> {
+            if (!this.snapshot.isBlank()) {
+                UsersSnapshot.write(usersDatabase, Path.of(this.snapshot));
+            }
+        };
+    }
+
+    @Bean
+    public CachingSearches searches(UsersDatabase usersDatabase, MeterRegistry meterRegistry,
+                                    @Value("${miw.searches.cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${miw.searches.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                                    @Value("${miw.searches.metrics.enabled:true}") boolean metricsEnabled) {
+        return new CachingSearches(usersDatabase, maximumSize, expireAfterWrite,
+                metricsEnabled ? new MicrometerSearchesListener(meterRegistry) : Searches.NO_MEASUREMENT);
+    }
+
+    @Bean
+    public MeterBinder searchesCacheMetrics(CachingSearches searches) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, searches.getFractionAdditionCache(), "searches.fraction-addition");
+            CaffeineCacheMetrics.monitor(registry, searches.getFractionSubtractionCache(), "searches.fraction-subtraction");
+        };
+    }
+}
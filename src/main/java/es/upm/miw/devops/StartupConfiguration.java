@@ -0,0 +1,35 @@
+package es.upm.miw.devops;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+@Configuration
+public class StartupConfiguration {
+
+    private static final String[] NON_CRITICAL_PACKAGES = {"org.springdoc."};
+
+    // Beans declared by classes of these packages (springdoc: /v3/api-docs, /swagger-ui.html) are only created when
+    // first needed, so they stay out of the time to first request. Static, as it must run before any bean is created;
+    // with Spring AOT the lazy flag is recorded in the generated bean definitions
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        String[] packages = environment.getProperty("miw.startup.lazy-packages", String[].class, NON_CRITICAL_PACKAGES);
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String declaringClass = definition.getFactoryBeanName() != null
+                        && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())
+                        ? beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName()
+                        : definition.getBeanClassName();
+                if (declaringClass != null && Arrays.stream(packages).anyMatch(declaringClass::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package es.upm.miw.devops.code;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Objects;
+
+public final class AdaptiveFraction {
+
+    public static final AdaptiveFraction ZERO = new AdaptiveFraction(0, 1);
+    private static final AdaptiveFraction NAN = new AdaptiveFraction(0, 0);
+
+    private final long numerator;
+    private final long denominator;
+    private final BigInteger bigNumerator;
+    private final BigInteger bigDenominator;
+
+    private AdaptiveFraction(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.bigNumerator = null;
+        this.bigDenominator = null;
+    }
+
+    private AdaptiveFraction(BigInteger numerator, BigInteger denominator) {
+        this.numerator = 0;
+        this.denominator = 0;
+        this.bigNumerator = numerator;
+        this.bigDenominator = denominator;
+    }
+
+    public static AdaptiveFraction of(Fraction fraction) {
+        return new AdaptiveFraction(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    public static AdaptiveFraction of(long numerator, long denominator) {
+        if (denominator == 0) {
+            return new AdaptiveFraction(Long.signum(numerator), 0);
+        }
+        try {
+            long gcd = Fraction.gcd(numerator, denominator);
+            if (denominator < 0) {
+                gcd = Math.negateExact(gcd);
+            }
+            return new AdaptiveFraction(numerator / gcd, denominator / gcd);
+        } catch (ArithmeticException overflow) {
+            return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        }
+    }
+
+    public static AdaptiveFraction of(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            return new AdaptiveFraction(numerator.signum(), 0);
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (denominator.signum() < 0) {
+            gcd = gcd.negate();
+        }
+        BigInteger reducedNumerator = numerator.divide(gcd);
+        BigInteger reducedDenominator = denominator.divide(gcd);
+        if (reducedNumerator.bitLength() < Long.SIZE && reducedDenominator.bitLength() < Long.SIZE) {
+            return new AdaptiveFraction(reducedNumerator.longValue(), reducedDenominator.longValue());
+        }
+        return new AdaptiveFraction(reducedNumerator, reducedDenominator);
+    }
+
+    public boolean isBig() {
+        return this.bigNumerator != null;
+    }
+
+    public BigInteger getNumerator() {
+        return this.isBig() ? this.bigNumerator : BigInteger.valueOf(this.numerator);
+    }
+
+    public BigInteger getDenominator() {
+        return this.isBig() ? this.bigDenominator : BigInteger.valueOf(this.denominator);
+    }
+
+    private boolean isFinite() {
+        return this.isBig() || this.denominator != 0;
+    }
+
+    public double decimal() {
+        if (this.isBig()) {
+            return new BigDecimal(this.bigNumerator)
+                    .divide(new BigDecimal(this.bigDenominator), MathContext.DECIMAL64).doubleValue();
+        }
+        return (double) this.numerator / this.denominator;
+    }
+
+    public AdaptiveFraction add(AdaptiveFraction other) {
+        if (!this.isFinite() || !other.isFinite()) {
+            return this.addNonFinite(other);
+        }
+        if (!this.isBig() && !other.isBig()) {
+            try {
+                long gcd = Fraction.gcd(this.denominator, other.denominator);
+                long newNumerator = Math.addExact(
+                        Math.multiplyExact(this.numerator, other.denominator / gcd),
+                        Math.multiplyExact(other.numerator, this.denominator / gcd));
+                return of(newNumerator, Math.multiplyExact(this.denominator / gcd, other.denominator));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        BigInteger thisDenominator = this.getDenominator();
+        BigInteger otherDenominator = other.getDenominator();
+        return of(this.getNumerator().multiply(otherDenominator).add(other.getNumerator().multiply(thisDenominator)),
+                thisDenominator.multiply(otherDenominator));
+    }
+
+    private AdaptiveFraction addNonFinite(AdaptiveFraction other) {
+        if (this.isFinite()) {
+            return other;
+        }
+        if (other.isFinite() || this.numerator == other.numerator) {
+            return this;
+        }
+        return NAN;
+    }
+
+    public AdaptiveFraction subtract(AdaptiveFraction other) {
+        return this.add(other.negate());
+    }
+
+    public AdaptiveFraction multiply(AdaptiveFraction other) {
+        if (!this.isBig() && !other.isBig()) {
+            try {
+                return of(Math.multiplyExact(this.numerator, other.numerator),
+                        Math.multiplyExact(this.denominator, other.denominator));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        return of(this.getNumerator().multiply(other.getNumerator()),
+                this.getDenominator().multiply(other.getDenominator()));
+    }
+
+    public AdaptiveFraction divide(AdaptiveFraction other) {
+        if (!this.isBig() && !other.isBig()) {
+            try {
+                return of(Math.multiplyExact(this.numerator, other.denominator),
+                        Math.multiplyExact(this.denominator, other.numerator));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        return of(this.getNumerator().multiply(other.getDenominator()),
+                this.getDenominator().multiply(other.getNumerator()));
+    }
+
+    public AdaptiveFraction negate() {
+        if (this.isBig()) {
+            return of(this.bigNumerator.negate(), this.bigDenominator); // 2^63 / d demotes to Long.MIN_VALUE / d
+        }
+        if (this.numerator == Long.MIN_VALUE) {
+            return of(BigInteger.valueOf(this.numerator).negate(), BigInteger.valueOf(this.denominator));
+        }
+        return new AdaptiveFraction(-this.numerator, this.denominator);
+    }
+
+    public Fraction toFraction() {
+        if (this.isBig()) {
+            throw new ArithmeticException("integer overflow");
+        }
+        return new Fraction(Math.toIntExact(this.numerator), Math.toIntExact(this.denominator));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof AdaptiveFraction fraction
+                && this.numerator == fraction.numerator && this.denominator == fraction.denominator
+                && Objects.equals(this.bigNumerator, fraction.bigNumerator)
+                && Objects.equals(this.bigDenominator, fraction.bigDenominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.isBig() ? Objects.hash(this.bigNumerator, this.bigDenominator)
+                : Long.hashCode(31 * this.numerator + this.denominator);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveFraction{" +
+                "numerator=" + this.getNumerator() +
+                ", denominator=" + this.getDenominator() +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package es.upm.miw.devops.code;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Caches the keyed lookups (by user id and by name); the full scans stay uncached and stream as before.
+// Entries are invalidated by the changes of the UsersDatabase: a stored User changed in place (User.addFraction,
+// setName...) is only seen once saved again, so use UsersDatabase.addFraction and save() on stored users
+public class CachingSearches extends Searches {
+
+    private final Cache<String, Optional<Fraction>> fractionAdditionCache;
+    private final Cache<String, Optional<Fraction>> fractionSubtractionCache;
+    private final UsersDatabase usersDatabase;
+
+    public CachingSearches(UsersDatabase usersDatabase, long maximumSize, Duration expireAfterWrite) {
+        this(usersDatabase, maximumSize, expireAfterWrite, NO_MEASUREMENT);
+    }
+
+    // Only misses reach the measured searches; hits are counted by the cache statistics
+    public CachingSearches(UsersDatabase usersDatabase, long maximumSize, Duration expireAfterWrite,
+                           Consumer<Measurement> measurementListener) {
+        this(usersDatabase, false, measurementListener,
+                newCache(maximumSize, expireAfterWrite), newCache(maximumSize, expireAfterWrite));
+        usersDatabase.addChangeListener(this::invalidate);
+    }
+
+    private CachingSearches(UsersDatabase usersDatabase, boolean parallel, Consumer<Measurement> measurementListener,
+                            Cache<String, Optional<Fraction>> fractionAdditionCache,
+                            Cache<String, Optional<Fraction>> fractionSubtractionCache) {
+        super(usersDatabase, parallel, measurementListener);
+        this.usersDatabase = usersDatabase;
+        this.fractionAdditionCache = fractionAdditionCache;
+        this.fractionSubtractionCache = fractionSubtractionCache;
+    }
+
+    // W-TinyLFU admission keeps the hot ids and names when a scan of one-off keys goes through
+    private static Cache<String, Optional<Fraction>> newCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, Optional<Fraction>> getFractionAdditionCache() {
+        return this.fractionAdditionCache;
+    }
+
+    public Cache<String, Optional<Fraction>> getFractionSubtractionCache() {
+        return this.fractionSubtractionCache;
+    }
+
+    @Override
+    public Searches parallel() {
+        return this.isParallel() ? this : new CachingSearches(this.usersDatabase, true,
+                this.getMeasurementListener(), this.fractionAdditionCache, this.fractionSubtractionCache);
+    }
+
+    @Override
+    public Searches sequential() {
+        return this.isParallel() ? new CachingSearches(this.usersDatabase, false,
+                this.getMeasurementListener(), this.fractionAdditionCache, this.fractionSubtractionCache) : this;
+    }
+
+    @Override
+    public Fraction findFractionAdditionByUserId(String id) {
+        return this.fractionAdditionCache
+                .get(id, key -> Optional.ofNullable(super.findFractionAdditionByUserId(key)))
+                .orElse(null);
+    }
+
+    @Override
+    public Fraction findFractionSubtractionByUserName(String name) {
+        return this.fractionSubtractionCache
+                .get(name, key -> Optional.ofNullable(super.findFractionSubtractionByUserName(key)))
+                .orElse(null);
+    }
+
+    // A change only reaches the entries of its id and of its names as indexed before and after it
+    private void invalidate(UsersDatabase.IndexEntry previous, UsersDatabase.IndexEntry current) {
+        UsersDatabase.IndexEntry changed = current != null ? current : previous;
+        this.fractionAdditionCache.invalidate(changed.user().getId());
+        if (previous != null && previous.name() != null) {
+            this.fractionSubtractionCache.invalidate(previous.name());
+        }
+        if (current != null && current.name() != null) {
+            this.fractionSubtractionCache.invalidate(current.name());
+        }
+    }
+}
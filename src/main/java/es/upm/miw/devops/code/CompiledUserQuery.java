@@ -0,0 +1,132 @@
+package es.upm.miw.devops.code;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Reusable plan of a UserQuery: the access path (id, name or family name index, else a scan) and a user predicate
+public final class CompiledUserQuery {
+
+    private final String id;
+    private final String name;
+    private final String familyName;
+    private final boolean someFraction;
+    private final int allowedClasses;
+    private final FractionPredicate residual;
+    private final Predicate<User> predicate;
+    private final String query;
+
+    CompiledUserQuery(String id, String name, String familyName, boolean someFraction, int allowedClasses,
+                      FractionPredicate residual, String query) {
+        this.id = id;
+        this.name = name;
+        this.familyName = familyName;
+        this.someFraction = someFraction;
+        this.allowedClasses = allowedClasses;
+        this.residual = residual;
+        this.query = query;
+        this.predicate = this.compilePredicate();
+    }
+
+    // Only the conditions the access path does not already guarantee are tested
+    private Predicate<User> compilePredicate() {
+        Predicate<User> fields = null;
+        if (this.id == null && this.name != null && this.familyName != null) {
+            String expected = this.familyName;
+            fields = user -> expected.equals(user.getFamilyName());
+        } else if (this.id != null && (this.name != null || this.familyName != null)) {
+            String expectedName = this.name;
+            String expectedFamilyName = this.familyName;
+            fields = user -> (expectedName == null || expectedName.equals(user.getName()))
+                    && (expectedFamilyName == null || expectedFamilyName.equals(user.getFamilyName()));
+        }
+        Predicate<User> fractions = this.compileFractionPredicate();
+        if (fields == null) {
+            return fractions;
+        }
+        return fractions == null ? fields : fields.and(fractions);
+    }
+
+    private Predicate<User> compileFractionPredicate() {
+        if (!this.someFraction) {
+            return null;
+        }
+        int classes = this.allowedClasses;
+        FractionPredicate fractions = this.residual;
+        if (fractions == null) {
+            return user -> FractionClass.count(user.getFractionColumns().counts(), classes) > 0;
+        }
+        return user -> FractionClass.count(user.getFractionColumns().counts(), classes) > 0
+                && user.getFractionColumns().anyMatch(fractions);
+    }
+
+    boolean matchesNothing() {
+        return this.someFraction && this.allowedClasses == 0;
+    }
+
+    // In id order, as every index keeps its users by id
+    Stream<User> candidates(UsersDatabase usersDatabase) {
+        if (this.matchesNothing()) {
+            return Stream.empty();
+        }
+        if (this.id != null) {
+            return usersDatabase.findById(this.id).stream();
+        }
+        if (this.name != null) {
+            return usersDatabase.findByName(this.name);
+        }
+        if (this.familyName != null) {
+            return usersDatabase.findByFamilyName(this.familyName);
+        }
+        return usersDatabase.findAll();
+    }
+
+    Predicate<User> predicate() {
+        return this.predicate == null ? user -> true : this.predicate;
+    }
+
+    boolean hasPredicate() {
+        return this.predicate != null;
+    }
+
+    // e.g. "byName(Ana) counts[proper] fractions" for the access path, the count pruning and the per-fraction test
+    public String plan() {
+        StringBuilder plan = new StringBuilder();
+        if (this.matchesNothing()) {
+            return "none";
+        } else if (this.id != null) {
+            plan.append("byId(").append(this.id).append(')');
+        } else if (this.name != null) {
+            plan.append("byName(").append(this.name).append(')');
+        } else if (this.familyName != null) {
+            plan.append("byFamilyName(").append(this.familyName).append(')');
+        } else {
+            plan.append("scan");
+        }
+        if (this.someFraction) {
+            plan.append(" counts[").append(classNames(this.allowedClasses)).append(']');
+            if (this.residual != null) {
+                plan.append(" fractions");
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String classNames(int classes) {
+        StringBuilder names = new StringBuilder();
+        if ((classes & FractionClass.PROPER) != 0) {
+            names.append(",proper");
+        }
+        if ((classes & FractionClass.IMPROPER) != 0) {
+            names.append(",improper");
+        }
+        if ((classes & FractionClass.NEITHER) != 0) {
+            names.append(",neither");
+        }
+        return names.substring(1);
+    }
+
+    @Override
+    public String toString() {
+        return this.query + " -> " + this.plan();
+    }
+}
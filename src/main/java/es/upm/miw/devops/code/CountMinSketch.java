@@ -0,0 +1,121 @@
+package es.upm.miw.devops.code;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Count-Min sketch (Cormode, Muthukrishnan): depth rows of width counters, a key adds to one counter per row and its
+ * estimate is the smallest of them. It never underestimates, and overestimates by more than e / width of the total
+ * with probability at most e^-depth. Keys are hashed whole (MurmurHash3 x64 128 of their UTF-8 bytes), so ids sharing
+ * a String.hashCode, as "Aa" and "BB" do, still land on independent counters.
+ */
+final class CountMinSketch {
+
+    private static final long SEED = 0x5eed;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final VarHandle LITTLE_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private final int width;
+    private final long[][] rows;
+    private long total;
+
+    CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("Count-Min width must be a power of two and depth positive: "
+                    + width + "x" + depth);
+        }
+        this.width = width;
+        this.rows = new long[depth][width];
+    }
+
+    void add(String key, long count) {
+        long[] hash = hash(key);
+        for (int row = 0; row < this.rows.length; row++) {
+            this.rows[row][this.column(hash, row)] += count;
+        }
+        this.total += count;
+    }
+
+    long estimate(String key) {
+        long[] hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < this.rows.length; row++) {
+            estimate = Math.min(estimate, this.rows[row][this.column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    long total() {
+        return this.total;
+    }
+
+    // The overestimate any key stays within, with confidence()
+    long error() {
+        return (long) Math.ceil(Math.E / this.width * this.total);
+    }
+
+    double confidence() {
+        return 1 - Math.exp(-this.rows.length);
+    }
+
+    // Row hashes h1 + row * h2 (Kirsch, Mitzenmacher) from the two independent 64-bit halves of the key hash
+    private int column(long[] hash, int row) {
+        return (int) ((hash[0] + row * (hash[1] | 1)) >>> 32) & (this.width - 1);
+    }
+
+    static long[] hash(String key) {
+        return murmur3(key.getBytes(StandardCharsets.UTF_8), SEED);
+    }
+
+    // MurmurHash3 x64 128 (Appleby)
+    static long[] murmur3(byte[] data, long seed) {
+        long h1 = seed;
+        long h2 = seed;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            h1 ^= mixK1((long) LITTLE_ENDIAN.get(data, 16 * i));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2((long) LITTLE_ENDIAN.get(data, 16 * i + 8));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        int tail = 16 * blocks;
+        int remaining = data.length - tail;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = remaining - 1; i >= 8; i--) {
+            k2 ^= (data[tail + i] & 0xffL) << (8 * (i - 8));
+        }
+        for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+            k1 ^= (data[tail + i] & 0xffL) << (8 * i);
+        }
+        if (remaining > 8) {
+            h2 ^= mixK2(k2);
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(k1);
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = HyperLogLog.mix64(h1);
+        h2 = HyperLogLog.mix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+}
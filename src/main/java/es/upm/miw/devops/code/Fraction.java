@@ -1,32 +1,49 @@
 package es.upm.miw.devops.code;
 
-public class Fraction {
-    private int numerator;
-    private int denominator;
+public class Fraction implements Comparable<Fraction> {
+    private final int numerator;
+    private final int denominator;
 
     public Fraction(int numerator, int denominator) {
-        this.numerator = numerator;
-        this.denominator = denominator;
+        this((long) numerator, denominator);
     }
 
     public Fraction() {
         this(1, 1);
     }
 
-    public int getNumerator() {
-        return numerator;
+    // Lowest terms with positive denominator; n/0 is kept as ±1/0 (infinity) and 0/0 (NaN)
+    private Fraction(long numerator, long denominator) {
+        if (denominator == 0) {
+            this.numerator = Long.signum(numerator);
+            this.denominator = 0;
+        } else {
+            long gcd = gcd(numerator, denominator);
+            if (denominator < 0) {
+                gcd = -gcd;
+            }
+            this.numerator = Math.toIntExact(numerator / gcd);
+            this.denominator = Math.toIntExact(denominator / gcd);
+        }
     }
 
-    public void setNumerator(int numerator) {
-        this.numerator = numerator;
+    static long gcd(long a, long b) {
+        a = Math.absExact(a);
+        b = Math.absExact(b);
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
     }
 
-    public int getDenominator() {
-        return denominator;
+    public int getNumerator() {
+        return numerator;
     }
 
-    public void setDenominator(int denominator) {
-        this.denominator = denominator;
+    public int getDenominator() {
+        return denominator;
     }
 
     public double decimal() {
@@ -34,29 +51,87 @@ public class Fraction {
     }
 
     public boolean isProper() {
-        return Math.abs(this.numerator) < Math.abs(this.denominator);
+        return isProper(this.numerator, this.denominator);
+    }
+
+    static boolean isProper(int numerator, int denominator) {
+        return Math.abs(numerator) < Math.abs(denominator);
     }
 
     public boolean isImproper() {
-        return Math.abs(this.numerator) > Math.abs(this.denominator);
+        return isImproper(this.numerator, this.denominator);
+    }
+
+    static boolean isImproper(int numerator, int denominator) {
+        return Math.abs(numerator) > Math.abs(denominator);
     }
 
     public boolean isEquivalent(Fraction other) {
-        return this.numerator * other.denominator == this.denominator * other.numerator;
+        return this.numerator == other.numerator && this.denominator == other.denominator;
+    }
+
+    // Exact, by cross-multiplication; -1/0 sorts below and 1/0 above every finite value, 0/0 above all of them
+    // (as Double.compare does with NaN), so the order agrees with equals
+    @Override
+    public int compareTo(Fraction other) {
+        return compare(this.numerator, this.denominator, other.numerator, other.denominator);
+    }
+
+    static int compare(int numerator, int denominator, int otherNumerator, int otherDenominator) {
+        if (denominator != 0 && otherDenominator != 0) {
+            return Long.compare((long) numerator * otherDenominator, (long) otherNumerator * denominator);
+        }
+        return Integer.compare(nonFiniteOrder(numerator, denominator), nonFiniteOrder(otherNumerator, otherDenominator));
+    }
+
+    private static int nonFiniteOrder(int numerator, int denominator) {
+        if (denominator != 0) {
+            return 0;
+        }
+        return numerator == 0 ? 2 : Integer.signum(numerator);
     }
 
     public Fraction add(Fraction other) {
-        int commonDenominator = this.denominator * other.denominator;
-        int newNumerator = this.numerator * other.denominator + other.numerator * this.denominator;
-        return new Fraction(newNumerator, commonDenominator);
+        if (this.denominator == 0 || other.denominator == 0) {
+            return this.addNonFinite(other);
+        }
+        long gcd = gcd(this.denominator, other.denominator);
+        long newNumerator = Math.addExact(
+                (long) this.numerator * (other.denominator / gcd),
+                (long) other.numerator * (this.denominator / gcd));
+        return new Fraction(newNumerator, (long) this.denominator / gcd * other.denominator);
+    }
+
+    private Fraction addNonFinite(Fraction other) {
+        if (this.denominator != 0) {
+            return other;
+        }
+        if (other.denominator != 0 || this.numerator == other.numerator) {
+            return this;
+        }
+        return new Fraction(0, 0);
     }
 
     public Fraction multiply(Fraction other) {
-        return new Fraction(this.numerator * other.numerator, this.denominator * other.denominator);
+        return new Fraction((long) this.numerator * other.numerator, (long) this.denominator * other.denominator);
     }
 
     public Fraction divide(Fraction other) {
-        return new Fraction(this.numerator * other.denominator, this.denominator * other.numerator);
+        return new Fraction((long) this.numerator * other.denominator, (long) this.denominator * other.numerator);
+    }
+
+    public Fraction negate() {
+        return new Fraction(-(long) this.numerator, this.denominator);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Fraction fraction && this.isEquivalent(fraction);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.numerator + this.denominator;
     }
 
     @Override
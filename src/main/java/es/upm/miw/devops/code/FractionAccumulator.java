@@ -0,0 +1,127 @@
+package es.upm.miw.devops.code;
+
+import java.util.List;
+
+public final class FractionAccumulator {
+
+    private static final int PAIRWISE_LEAF_SIZE = 1_024;
+
+    private long numerator;
+    private long denominator = 1;
+    private AdaptiveFraction big;
+    private long count;
+
+    public static AdaptiveFraction pairwiseSum(List<Fraction> fractions) {
+        if (fractions.size() <= PAIRWISE_LEAF_SIZE) {
+            FractionAccumulator accumulator = new FractionAccumulator();
+            for (Fraction fraction : fractions) {
+                if (fraction != null) {
+                    accumulator.add(fraction);
+                }
+            }
+            return accumulator.toAdaptiveFraction();
+        }
+        int middle = fractions.size() >>> 1;
+        return pairwiseSum(fractions.subList(0, middle)).add(pairwiseSum(fractions.subList(middle, fractions.size())));
+    }
+
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    public FractionAccumulator add(Fraction fraction) {
+        return this.add(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    public FractionAccumulator subtract(Fraction fraction) {
+        return this.subtract(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    public FractionAccumulator add(int numerator, int denominator) {
+        this.accumulate(numerator, denominator);
+        this.count++;
+        return this;
+    }
+
+    public FractionAccumulator subtract(int numerator, int denominator) {
+        this.accumulate(-(long) numerator, denominator);
+        this.count++;
+        return this;
+    }
+
+    public FractionAccumulator combine(FractionAccumulator other) {
+        if (other.big != null) {
+            this.accumulateBig(other.big);
+        } else {
+            this.accumulate(other.numerator, other.denominator);
+        }
+        this.count += other.count;
+        return this;
+    }
+
+    public AdaptiveFraction toAdaptiveFraction() {
+        return this.big != null ? this.big : AdaptiveFraction.of(this.numerator, this.denominator);
+    }
+
+    public Fraction toFraction() {
+        return this.toAdaptiveFraction().toFraction();
+    }
+
+    // Fractions are added unreduced while the long terms fit; the GCD only runs when they would overflow
+    private void accumulate(long otherNumerator, long otherDenominator) {
+        if (this.big == null && this.denominator != 0 && otherDenominator != 0
+                && (this.tryAdd(otherNumerator, otherDenominator)
+                || this.reduce() && this.tryAdd(otherNumerator, otherDenominator))) {
+            return;
+        }
+        this.accumulateBig(AdaptiveFraction.of(otherNumerator, otherDenominator));
+    }
+
+    private boolean tryAdd(long otherNumerator, long otherDenominator) {
+        if (otherDenominator == this.denominator) {
+            long sum = this.numerator + otherNumerator;
+            if (((this.numerator ^ sum) & (otherNumerator ^ sum)) < 0) {
+                return false;
+            }
+            this.numerator = sum;
+            return true;
+        }
+        long left = this.numerator * otherDenominator;
+        long right = otherNumerator * this.denominator;
+        long newDenominator = this.denominator * otherDenominator;
+        long sum = left + right;
+        if (Math.multiplyHigh(this.numerator, otherDenominator) != left >> 63
+                || Math.multiplyHigh(otherNumerator, this.denominator) != right >> 63
+                || Math.multiplyHigh(this.denominator, otherDenominator) != newDenominator >> 63
+                || ((left ^ sum) & (right ^ sum)) < 0) {
+            return false;
+        }
+        this.numerator = sum;
+        this.denominator = newDenominator;
+        return true;
+    }
+
+    private boolean reduce() {
+        if (this.numerator == Long.MIN_VALUE) {
+            return false;
+        }
+        long gcd = Fraction.gcd(this.numerator, this.denominator);
+        if (gcd <= 1) {
+            return false;
+        }
+        this.numerator /= gcd;
+        this.denominator /= gcd;
+        return true;
+    }
+
+    private void accumulateBig(AdaptiveFraction other) {
+        AdaptiveFraction result = this.toAdaptiveFraction().add(other);
+        if (result.isBig()) {
+            this.big = result;
+        } else {
+            this.big = null;
+            this.numerator = result.getNumerator().longValue();
+            this.denominator = result.getDenominator().longValue();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package es.upm.miw.devops.code;
+
+// Bit flags of the three disjoint kinds of fraction; FractionColumns counts the proper and improper ones per user
+final class FractionClass {
+
+    static final int PROPER = 1;
+    static final int IMPROPER = 2;
+    static final int NEITHER = 4; // |numerator| == |denominator|: 1/1, -1/1 and 0/0
+    static final int ALL = PROPER | IMPROPER | NEITHER;
+
+    private FractionClass() {
+        // utility class
+    }
+
+    static int of(int numerator, int denominator) {
+        if (Fraction.isProper(numerator, denominator)) {
+            return PROPER;
+        }
+        return Fraction.isImproper(numerator, denominator) ? IMPROPER : NEITHER;
+    }
+
+    static int count(FractionColumns.Snapshot fractions, int classes) {
+        int count = 0;
+        if ((classes & PROPER) != 0) {
+            count += fractions.properCount();
+        }
+        if ((classes & IMPROPER) != 0) {
+            count += fractions.improperCount();
+        }
+        if ((classes & NEITHER) != 0) {
+            count += fractions.size() - fractions.properCount() - fractions.improperCount();
+        }
+        return count;
+    }
+}
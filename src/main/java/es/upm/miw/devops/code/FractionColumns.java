@@ -0,0 +1,299 @@
+package es.upm.miw.devops.code;
+
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Append-only log of (numerator, denominator) pairs in chunks that never move: the first one sized to the initial
+ * fractions, every later one as large as all the previous ones together. Appends are serialized on the columns and
+ * publish a new Snapshot; readers only read the volatile snapshot, so they never lock and a snapshot stays
+ * consistent (its pairs, counts and sum) however many fractions are appended after it was taken.
+ */
+final class FractionColumns {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    static final class Snapshot {
+        private final int[][] chunks; // null until the snapshot pages are loaded
+        private final int size;
+        private final int properCount;
+        private final int improperCount;
+        private final FractionAccumulator sum; // never modified once published
+
+        private Snapshot(int[][] chunks, int size, int properCount, int improperCount, FractionAccumulator sum) {
+            this.chunks = chunks;
+            this.size = size;
+            this.properCount = properCount;
+            this.improperCount = improperCount;
+            this.sum = sum;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int properCount() {
+            return this.properCount;
+        }
+
+        int improperCount() {
+            return this.improperCount;
+        }
+
+        int numerator(int index) {
+            return this.pair(index, 0);
+        }
+
+        int denominator(int index) {
+            return this.pair(index, 1);
+        }
+
+        Fraction get(int index) {
+            return new Fraction(this.numerator(index), this.denominator(index));
+        }
+
+        // Chunk k > 0 starts at firstCapacity << (k - 1)
+        private int pair(int index, int column) {
+            if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int firstCapacity = this.chunks[0].length >> 1;
+            if (index < firstCapacity) {
+                return this.chunks[0][2 * index + column];
+            }
+            int chunk = 32 - Integer.numberOfLeadingZeros(index / firstCapacity);
+            int offset = index - (firstCapacity << (chunk - 1));
+            return this.chunks[chunk][2 * offset + column];
+        }
+
+        boolean anyMatch(FractionPredicate predicate) {
+            int remaining = this.size;
+            for (int k = 0; remaining > 0; k++) {
+                int[] chunk = this.chunks[k];
+                int count = Math.min(remaining, chunk.length >> 1);
+                for (int i = 0; i < 2 * count; i += 2) {
+                    if (predicate.test(chunk[i], chunk[i + 1])) {
+                        return true;
+                    }
+                }
+                remaining -= count;
+            }
+            return false;
+        }
+
+        // How many fractions both snapshots start with, in the same order. Snapshots of the same columns share their
+        // first chunk and, as pairs are only ever appended, the smaller one is a prefix of the other
+        int commonPrefix(Snapshot other) {
+            int common = Math.min(this.size, other.size);
+            if (this.chunks[0] == other.chunks[0]) {
+                return common;
+            }
+            for (int i = 0; i < common; i++) {
+                if (this.numerator(i) != other.numerator(i) || this.denominator(i) != other.denominator(i)) {
+                    return i;
+                }
+            }
+            return common;
+        }
+
+        List<Fraction> asList() {
+            return new AbstractList<>() {
+                @Override
+                public Fraction get(int index) {
+                    return Snapshot.this.get(index);
+                }
+
+                @Override
+                public int size() {
+                    return Snapshot.this.size;
+                }
+            };
+        }
+    }
+
+    // Single-threaded, for columns filled before anybody else can see them: one chunk and one snapshot at the end
+    static final class Builder {
+        private int[] pairs;
+        private int size;
+        private int properCount;
+        private int improperCount;
+        private final FractionAccumulator sum = new FractionAccumulator();
+
+        Builder() {
+            this(INITIAL_CAPACITY);
+        }
+
+        Builder(int capacity) {
+            this.pairs = new int[2 * Math.max(1, capacity)];
+        }
+
+        // Null fractions are skipped, as every search already ignored them
+        Builder add(Fraction fraction) {
+            if (fraction != null) {
+                this.add(fraction.getNumerator(), fraction.getDenominator());
+            }
+            return this;
+        }
+
+        private void add(int numerator, int denominator) {
+            if (2 * this.size == this.pairs.length) {
+                this.pairs = Arrays.copyOf(this.pairs, 2 * (this.size + Math.max(1, this.size >> 1)));
+            }
+            this.pairs[2 * this.size] = numerator;
+            this.pairs[2 * this.size + 1] = denominator;
+            this.size++;
+            if (Fraction.isProper(numerator, denominator)) {
+                this.properCount++;
+            } else if (Fraction.isImproper(numerator, denominator)) {
+                this.improperCount++;
+            }
+            this.sum.add(numerator, denominator);
+        }
+
+        FractionColumns build() {
+            return new FractionColumns(new Snapshot(new int[][]{this.pairs}, this.size, this.properCount,
+                    this.improperCount, this.sum));
+        }
+    }
+
+    private volatile Snapshot snapshot;
+    // Snapshot pages (numerators then denominators), checked then copied into the first chunk on first access
+    private IntBuffer mapped;
+    private Runnable verify; // throws UncheckedIOException if the pages are corrupted
+
+    FractionColumns() {
+        this(new Snapshot(new int[][]{new int[2 * INITIAL_CAPACITY]}, 0, 0, 0, new FractionAccumulator()));
+    }
+
+    FractionColumns(List<Fraction> fractions) {
+        this(build(fractions));
+    }
+
+    private static Snapshot build(List<Fraction> fractions) {
+        Builder builder = new Builder(fractions.size());
+        for (Fraction fraction : fractions) {
+            builder.add(fraction);
+        }
+        return builder.build().snapshot;
+    }
+
+    private FractionColumns(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    private FractionColumns(IntBuffer mapped, int size, int properCount, int improperCount, Runnable verify) {
+        this.mapped = mapped;
+        this.verify = verify;
+        this.snapshot = new Snapshot(null, size, properCount, improperCount, null);
+    }
+
+    static FractionColumns mapped(IntBuffer mapped, int size, int properCount, int improperCount, Runnable verify) {
+        return new FractionColumns(mapped, size, properCount, improperCount, verify);
+    }
+
+    private Snapshot loaded() {
+        Snapshot current = this.snapshot;
+        if (current.chunks != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.snapshot;
+            if (current.chunks == null) {
+                this.verify.run();
+                int size = current.size;
+                int[] pairs = new int[2 * Math.max(1, size)];
+                FractionAccumulator sum = new FractionAccumulator();
+                for (int i = 0; i < size; i++) {
+                    pairs[2 * i] = this.mapped.get(i);
+                    pairs[2 * i + 1] = this.mapped.get(size + i);
+                    sum.add(pairs[2 * i], pairs[2 * i + 1]);
+                }
+                current = new Snapshot(new int[][]{pairs}, size, current.properCount, current.improperCount, sum);
+                this.snapshot = current;
+                this.mapped = null;
+                this.verify = null;
+            }
+            return current;
+        }
+    }
+
+    // A consistent view of the fractions appended so far; it never changes afterwards
+    Snapshot snapshot() {
+        return this.loaded();
+    }
+
+    int size() {
+        return this.snapshot.size;
+    }
+
+    // Safe from any number of threads; only appenders to these same columns wait for each other
+    void add(Fraction fraction) {
+        if (fraction == null) {
+            return;
+        }
+        int numerator = fraction.getNumerator();
+        int denominator = fraction.getDenominator();
+        synchronized (this) {
+            Snapshot current = this.loaded();
+            int[][] chunks = current.chunks;
+            int firstCapacity = chunks[0].length >> 1;
+            int capacity = firstCapacity << (chunks.length - 1);
+            if (current.size == capacity) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = new int[2 * capacity];
+            }
+            int[] last = chunks[chunks.length - 1];
+            int offset = current.size - (chunks.length == 1 ? 0 : firstCapacity << (chunks.length - 2));
+            last[2 * offset] = numerator;
+            last[2 * offset + 1] = denominator;
+            this.snapshot = new Snapshot(chunks, current.size + 1,
+                    current.properCount + (Fraction.isProper(numerator, denominator) ? 1 : 0),
+                    current.improperCount + (Fraction.isImproper(numerator, denominator) ? 1 : 0),
+                    new FractionAccumulator().combine(current.sum).add(numerator, denominator));
+        }
+    }
+
+    int numerator(int index) {
+        return this.loaded().numerator(index);
+    }
+
+    int denominator(int index) {
+        return this.loaded().denominator(index);
+    }
+
+    Fraction get(int index) {
+        return this.loaded().get(index);
+    }
+
+    // Fixed to the fractions present when called; later appends show up in the next call
+    List<Fraction> asList() {
+        return this.loaded().asList();
+    }
+
+    // Without loading the snapshot pages, so only its size and counts can be used
+    Snapshot counts() {
+        return this.snapshot;
+    }
+
+    int properCount() {
+        return this.snapshot.properCount;
+    }
+
+    int improperCount() {
+        return this.snapshot.improperCount;
+    }
+
+    AdaptiveFraction sum() {
+        return this.loaded().sum.toAdaptiveFraction();
+    }
+
+    boolean anyMatch(FractionPredicate predicate) {
+        return this.loaded().anyMatch(predicate);
+    }
+
+    void addTo(FractionAccumulator accumulator) {
+        accumulator.combine(this.loaded().sum);
+    }
+}
@@ -0,0 +1,169 @@
+package es.upm.miw.devops.code;
+
+import java.util.Objects;
+
+// Conditions on a single fraction, all of them required; bounds are inclusive
+public final class FractionFilter {
+
+    private static final FractionFilter ANY = new FractionFilter();
+
+    // Only set while building a copy, so a published filter never changes
+    private int minNumerator = Integer.MIN_VALUE;
+    private int maxNumerator = Integer.MAX_VALUE;
+    private int minDenominator = Integer.MIN_VALUE;
+    private int maxDenominator = Integer.MAX_VALUE;
+    private boolean proper;
+    private boolean improper;
+    private double minDecimal = Double.NEGATIVE_INFINITY;
+    private double maxDecimal = Double.POSITIVE_INFINITY;
+    private Fraction equivalent;
+    private boolean contradicted;
+
+    private FractionFilter() {
+    }
+
+    private FractionFilter(FractionFilter other) {
+        this.minNumerator = other.minNumerator;
+        this.maxNumerator = other.maxNumerator;
+        this.minDenominator = other.minDenominator;
+        this.maxDenominator = other.maxDenominator;
+        this.proper = other.proper;
+        this.improper = other.improper;
+        this.minDecimal = other.minDecimal;
+        this.maxDecimal = other.maxDecimal;
+        this.equivalent = other.equivalent;
+        this.contradicted = other.contradicted;
+    }
+
+    public static FractionFilter fractions() {
+        return ANY;
+    }
+
+    public FractionFilter numeratorBetween(int min, int max) {
+        FractionFilter filter = new FractionFilter(this);
+        filter.minNumerator = Math.max(this.minNumerator, min);
+        filter.maxNumerator = Math.min(this.maxNumerator, max);
+        return filter;
+    }
+
+    public FractionFilter denominatorBetween(int min, int max) {
+        FractionFilter filter = new FractionFilter(this);
+        filter.minDenominator = Math.max(this.minDenominator, min);
+        filter.maxDenominator = Math.min(this.maxDenominator, max);
+        return filter;
+    }
+
+    public FractionFilter proper() {
+        FractionFilter filter = new FractionFilter(this);
+        filter.proper = true;
+        return filter;
+    }
+
+    public FractionFilter improper() {
+        FractionFilter filter = new FractionFilter(this);
+        filter.improper = true;
+        return filter;
+    }
+
+    public FractionFilter decimalBetween(double min, double max) {
+        FractionFilter filter = new FractionFilter(this);
+        filter.minDecimal = Math.max(this.minDecimal, min);
+        filter.maxDecimal = Math.min(this.maxDecimal, max);
+        return filter;
+    }
+
+    // Fractions are kept in lowest terms, so only one stored value can be equivalent to it
+    public FractionFilter equivalentTo(Fraction fraction) {
+        FractionFilter filter = new FractionFilter(this);
+        filter.equivalent = Objects.requireNonNull(fraction);
+        filter.contradicted |= this.equivalent != null && !this.equivalent.isEquivalent(fraction);
+        return filter;
+    }
+
+    // Fraction classes (see FractionClass) a matching fraction may belong to; 0 when nothing can match
+    int allowedClasses() {
+        int allowed = FractionClass.ALL;
+        if (this.proper) {
+            allowed &= FractionClass.PROPER;
+        }
+        if (this.improper) {
+            allowed &= FractionClass.IMPROPER;
+        }
+        if (this.equivalent != null) {
+            allowed &= FractionClass.of(this.equivalent.getNumerator(), this.equivalent.getDenominator());
+        }
+        if (this.minDecimal > -1 && this.maxDecimal < 1) {
+            allowed &= FractionClass.PROPER;
+        } else if (this.minDecimal > 1 || this.maxDecimal < -1) {
+            allowed &= FractionClass.IMPROPER;
+        }
+        if (this.contradicted || this.minNumerator > this.maxNumerator || this.minDenominator > this.maxDenominator
+                || !(this.minDecimal <= this.maxDecimal)) {
+            allowed = 0;
+        }
+        return allowed;
+    }
+
+    // What the fraction classes alone cannot decide, or null when they decide everything
+    FractionPredicate residual() {
+        FractionPredicate predicate = null;
+        if (this.equivalent != null) {
+            int numerator = this.equivalent.getNumerator();
+            int denominator = this.equivalent.getDenominator();
+            predicate = FractionPredicate.and(predicate, (n, d) -> n == numerator && d == denominator);
+        }
+        if (this.minNumerator != Integer.MIN_VALUE || this.maxNumerator != Integer.MAX_VALUE) {
+            int min = this.minNumerator;
+            int max = this.maxNumerator;
+            predicate = FractionPredicate.and(predicate, (n, d) -> n >= min && n <= max);
+        }
+        if (this.minDenominator != Integer.MIN_VALUE || this.maxDenominator != Integer.MAX_VALUE) {
+            int min = this.minDenominator;
+            int max = this.maxDenominator;
+            predicate = FractionPredicate.and(predicate, (n, d) -> d >= min && d <= max);
+        }
+        if (this.minDecimal != Double.NEGATIVE_INFINITY || this.maxDecimal != Double.POSITIVE_INFINITY) {
+            double min = this.minDecimal;
+            double max = this.maxDecimal;
+            predicate = FractionPredicate.and(predicate, (n, d) -> {
+                double decimal = (double) n / d;
+                return decimal >= min && decimal <= max;
+            });
+        }
+        // The classes only prune users; once other conditions apply, the same fraction must also be of the class
+        if (predicate != null && this.equivalent == null) {
+            if (this.proper) {
+                predicate = FractionPredicate.and(predicate, Fraction::isProper);
+            }
+            if (this.improper) {
+                predicate = FractionPredicate.and(predicate, Fraction::isImproper);
+            }
+        }
+        return predicate;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder conditions = new StringBuilder();
+        if (this.minNumerator != Integer.MIN_VALUE || this.maxNumerator != Integer.MAX_VALUE) {
+            conditions.append(" numerator[").append(this.minNumerator).append(',').append(this.maxNumerator).append(']');
+        }
+        if (this.minDenominator != Integer.MIN_VALUE || this.maxDenominator != Integer.MAX_VALUE) {
+            conditions.append(" denominator[").append(this.minDenominator).append(',').append(this.maxDenominator)
+                    .append(']');
+        }
+        if (this.proper) {
+            conditions.append(" proper");
+        }
+        if (this.improper) {
+            conditions.append(" improper");
+        }
+        if (this.minDecimal != Double.NEGATIVE_INFINITY || this.maxDecimal != Double.POSITIVE_INFINITY) {
+            conditions.append(" decimal[").append(this.minDecimal).append(',').append(this.maxDecimal).append(']');
+        }
+        if (this.equivalent != null) {
+            conditions.append(" equivalentTo ").append(this.equivalent);
+        }
+        return conditions.isEmpty() ? "any" : conditions.substring(1);
+    }
+}
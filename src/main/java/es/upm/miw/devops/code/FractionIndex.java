@@ -0,0 +1,324 @@
+package es.upm.miw.devops.code;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Every fraction of every user in value order (Fraction.compareTo, then user id) in a weight-balanced tree whose nodes
+ * also count the fractions below them, so ranges, ranks and the k-th fraction are found in logarithmic time.
+ * Nodes never change: an update copies the paths it touches and swaps the root, so readers never lock and each query
+ * sees the index as it was when the query started. The same fraction held twice by one user is one node counted twice.
+ */
+final class FractionIndex {
+
+    // Adams' weight-balanced tree parameters, as in Haskell's Data.Map
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    private static final Comparator<Node> ORDER = (left, right) -> left.compareTo(right.numerator,
+            right.denominator, right.user.getId());
+
+    private static final class Node {
+        private final int numerator;
+        private final int denominator;
+        private final User user;
+        private final int count;
+        private final int nodes; // for balancing
+        private final int size; // fractions, for ranks
+        private final Node left;
+        private final Node right;
+
+        private Node(int numerator, int denominator, User user, int count, Node left, Node right) {
+            this.numerator = numerator;
+            this.denominator = denominator;
+            this.user = user;
+            this.count = count;
+            this.left = left;
+            this.right = right;
+            this.nodes = 1 + nodes(left) + nodes(right);
+            this.size = count + size(left) + size(right);
+        }
+
+        private Node(Node key, Node left, Node right) {
+            this(key.numerator, key.denominator, key.user, key.count, left, right);
+        }
+
+        private int compareTo(int numerator, int denominator, String id) {
+            int compared = Fraction.compare(this.numerator, this.denominator, numerator, denominator);
+            return compared != 0 ? compared : this.user.getId().compareTo(id);
+        }
+
+        private int compareValue(Fraction value) {
+            return Fraction.compare(this.numerator, this.denominator, value.getNumerator(), value.getDenominator());
+        }
+
+        private UserFraction toUserFraction() {
+            return new UserFraction(this.user, new Fraction(this.numerator, this.denominator));
+        }
+    }
+
+    record Indexed(User user, FractionColumns.Snapshot fractions) {
+    }
+
+    private final AtomicReference<Node> root = new AtomicReference<>();
+    // What was indexed for each user, so it is removed exactly even if its fractions were appended to since
+    private final Map<String, Indexed> indexed = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    boolean isBuilt() {
+        return this.built;
+    }
+
+    // From snapshots of the users, which changed() may then bring up to date; isBuilt() only once published
+    void build(Collection<Indexed> users) {
+        List<Node> leaves = new ArrayList<>();
+        for (Indexed user : users) {
+            FractionColumns.Snapshot fractions = user.fractions();
+            this.indexed.put(user.user().getId(), user);
+            for (int i = 0; i < fractions.size(); i++) {
+                leaves.add(new Node(fractions.numerator(i), fractions.denominator(i), user.user(), 1, null, null));
+            }
+        }
+        leaves.sort(ORDER);
+        List<Node> keys = new ArrayList<>(leaves.size());
+        for (Node leaf : leaves) {
+            Node last = keys.isEmpty() ? null : keys.getLast();
+            if (last != null && ORDER.compare(last, leaf) == 0) {
+                keys.set(keys.size() - 1, new Node(last.numerator, last.denominator, last.user, last.count + 1,
+                        null, null));
+            } else {
+                keys.add(leaf);
+            }
+        }
+        this.root.set(balanced(keys, 0, keys.size()));
+    }
+
+    void publish() {
+        this.built = true;
+    }
+
+    private static Node balanced(List<Node> keys, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(keys.get(middle), balanced(keys, from, middle), balanced(keys, middle + 1, to));
+    }
+
+    // Changes of one id must not overlap; changes of different ids may, and each is applied whole. Only the fractions
+    // past the prefix the indexed ones share with the new ones are moved, unless the nodes must point to another User
+    void changed(String id, User current) {
+        FractionColumns.Snapshot added = current == null ? null : current.getFractionColumns().snapshot();
+        Indexed previous = added == null ? this.indexed.remove(id) : this.indexed.put(id, new Indexed(current, added));
+        FractionColumns.Snapshot removed = previous == null ? null : previous.fractions();
+        int kept = removed != null && added != null && previous.user() == current ? removed.commonPrefix(added) : 0;
+        Node from;
+        Node to;
+        do {
+            from = this.root.get();
+            to = from;
+            if (removed != null) {
+                for (int i = kept; i < removed.size(); i++) {
+                    to = delete(to, removed.numerator(i), removed.denominator(i), id);
+                }
+            }
+            if (added != null) {
+                for (int i = kept; i < added.size(); i++) {
+                    to = insert(to, added.numerator(i), added.denominator(i), current);
+                }
+            }
+        } while (!this.root.compareAndSet(from, to));
+    }
+
+    int size() {
+        return size(this.root.get());
+    }
+
+    // Fractions strictly below the value
+    int rank(Fraction value) {
+        int rank = 0;
+        Node node = this.root.get();
+        while (node != null) {
+            if (node.compareValue(value) < 0) {
+                rank += size(node.left) + node.count;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    // The fraction with that many below it, or null past the last one
+    UserFraction select(int rank) {
+        Node node = this.root.get();
+        while (node != null) {
+            int below = size(node.left);
+            if (rank < below) {
+                node = node.left;
+            } else if (rank < below + node.count) {
+                return node.toUserFraction();
+            } else {
+                rank -= below + node.count;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    // Largest first, each fraction as many times as its user holds it
+    List<UserFraction> largest(int limit) {
+        List<UserFraction> largest = new ArrayList<>(Math.min(limit, this.size()));
+        descending(this.root.get(), limit, largest);
+        return largest;
+    }
+
+    private static void descending(Node node, int limit, List<UserFraction> largest) {
+        if (node == null || largest.size() == limit) {
+            return;
+        }
+        descending(node.right, limit, largest);
+        UserFraction fraction = node.toUserFraction();
+        for (int i = 0; i < node.count && largest.size() < limit; i++) {
+            largest.add(fraction);
+        }
+        descending(node.left, limit, largest);
+    }
+
+    // Users with some fraction between both bounds (included), in the order of the smallest of them
+    Stream<User> usersBetween(Fraction min, Fraction max) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = this.root.get();
+        while (node != null) {
+            if (node.compareValue(min) >= 0) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        Iterator<User> users = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty() && path.peek().compareValue(max) <= 0;
+            }
+
+            @Override
+            public User next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Node next = path.pop();
+                for (Node left = next.right; left != null; left = left.left) {
+                    path.push(left);
+                }
+                return next.user;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(users, Spliterator.ORDERED
+                | Spliterator.NONNULL), false).distinct();
+    }
+
+    private static Node insert(Node node, int numerator, int denominator, User user) {
+        if (node == null) {
+            return new Node(numerator, denominator, user, 1, null, null);
+        }
+        int compared = node.compareTo(numerator, denominator, user.getId());
+        if (compared > 0) {
+            return balance(node, insert(node.left, numerator, denominator, user), node.right);
+        }
+        if (compared < 0) {
+            return balance(node, node.left, insert(node.right, numerator, denominator, user));
+        }
+        return new Node(numerator, denominator, user, node.count + 1, node.left, node.right);
+    }
+
+    private static Node delete(Node node, int numerator, int denominator, String id) {
+        if (node == null) {
+            return null;
+        }
+        int compared = node.compareTo(numerator, denominator, id);
+        if (compared > 0) {
+            return balance(node, delete(node.left, numerator, denominator, id), node.right);
+        }
+        if (compared < 0) {
+            return balance(node, node.left, delete(node.right, numerator, denominator, id));
+        }
+        if (node.count > 1) {
+            return new Node(node.numerator, node.denominator, node.user, node.count - 1, node.left, node.right);
+        }
+        return glue(node.left, node.right);
+    }
+
+    // Joins the two subtrees of a deleted node, taking its replacement from the larger one
+    private static Node glue(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.nodes > right.nodes) {
+            Node max = left;
+            while (max.right != null) {
+                max = max.right;
+            }
+            return balance(max, deleteMax(left), right);
+        }
+        Node min = right;
+        while (min.left != null) {
+            min = min.left;
+        }
+        return balance(min, left, deleteMin(right));
+    }
+
+    private static Node deleteMin(Node node) {
+        return node.left == null ? node.right : balance(node, deleteMin(node.left), node.right);
+    }
+
+    private static Node deleteMax(Node node) {
+        return node.right == null ? node.left : balance(node, node.left, deleteMax(node.right));
+    }
+
+    // A node with the key of the given one over both subtrees, rotated if one outweighs the other DELTA times
+    private static Node balance(Node key, Node left, Node right) {
+        int leftNodes = nodes(left);
+        int rightNodes = nodes(right);
+        if (leftNodes + rightNodes > 1) {
+            if (rightNodes > DELTA * leftNodes) {
+                return nodes(right.left) < RATIO * nodes(right.right)
+                        ? new Node(right, new Node(key, left, right.left), right.right)
+                        : new Node(right.left, new Node(key, left, right.left.left),
+                        new Node(right, right.left.right, right.right));
+            }
+            if (leftNodes > DELTA * rightNodes) {
+                return nodes(left.right) < RATIO * nodes(left.left)
+                        ? new Node(left, left.left, new Node(key, left.right, right))
+                        : new Node(left.right, new Node(left, left.left, left.right.left),
+                        new Node(key, left.right.right, right));
+            }
+        }
+        return new Node(key, left, right);
+    }
+
+    private static int nodes(Node node) {
+        return node == null ? 0 : node.nodes;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,13 @@
+package es.upm.miw.devops.code;
+
+// Tested on the stored columns, so matching a fraction never builds a Fraction
+@FunctionalInterface
+interface FractionPredicate {
+
+    boolean test(int numerator, int denominator);
+
+    static FractionPredicate and(FractionPredicate first, FractionPredicate second) {
+        return first == null ? second : (numerator, denominator) -> first.test(numerator, denominator)
+                && second.test(numerator, denominator);
+    }
+}
@@ -0,0 +1,128 @@
+package es.upm.miw.devops.code;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ * Approximate statistics over every fraction added to a UsersDatabase, in memory that does not grow with it:
+ * - distinct fractions (HyperLogLog over the fractions in lowest terms, 2^14 registers: 0.81% relative standard error)
+ * - quantiles of their decimal() values (KLL, k = 200: rank error 1.65% at 99% confidence; 0/0 has no value)
+ * - users adding the most fractions (Count-Min, 2048 x 5: overestimate below 0.13% of all fractions at 99.3% confidence,
+ *   over the HEAVY_HITTERS users with the largest estimates so far)
+ * Sketches only grow: deleted users and replaced fractions still count, as everything added since they were built.
+ * What each user already had counted is tracked by its UsersDatabase, which only passes on the fractions past it.
+ * Writers and readers take one ReentrantLock, so a virtual thread waiting on it does not pin its carrier.
+ */
+public final class FractionStatistics {
+
+    public static final int HEAVY_HITTERS = 64;
+    private static final int HLL_PRECISION = 14;
+    private static final int KLL_K = 200;
+    private static final int COUNT_MIN_WIDTH = 2048;
+    private static final int COUNT_MIN_DEPTH = 5;
+
+    public record HeavyHitter(String id, long fractions) {
+    }
+
+    private final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+    private final KllSketch decimals = new KllSketch(KLL_K, 0x5eed);
+    private final CountMinSketch volumes = new CountMinSketch(COUNT_MIN_WIDTH, COUNT_MIN_DEPTH);
+    private final Map<String, Long> heavyHitters = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // The fractions from index from on; writers of different users may call it at once
+    void add(String id, FractionColumns.Snapshot fractions, int from) {
+        int added = fractions.size() - from;
+        if (added <= 0) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            for (int i = from; i < fractions.size(); i++) {
+                int numerator = fractions.numerator(i);
+                int denominator = fractions.denominator(i);
+                this.distinct.add(HyperLogLog.mix64((long) numerator << 32 | (denominator & 0xffffffffL)));
+                this.decimals.update((double) numerator / denominator);
+            }
+            this.volumes.add(id, added);
+            this.track(id, this.volumes.estimate(id));
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private <T> T locked(Supplier<T> read) {
+        this.lock.lock();
+        try {
+            return read.get();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // Keeps the HEAVY_HITTERS largest estimates; a newcomer only displaces the smallest one
+    private void track(String id, long estimate) {
+        if (this.heavyHitters.size() < HEAVY_HITTERS || this.heavyHitters.containsKey(id)) {
+            this.heavyHitters.put(id, estimate);
+            return;
+        }
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> candidate : this.heavyHitters.entrySet()) {
+            if (smallest == null || candidate.getValue() < smallest.getValue()) {
+                smallest = candidate;
+            }
+        }
+        if (smallest != null && estimate > smallest.getValue()) {
+            this.heavyHitters.remove(smallest.getKey());
+            this.heavyHitters.put(id, estimate);
+        }
+    }
+
+    public long fractions() {
+        return this.locked(this.volumes::total);
+    }
+
+    public long distinctFractions() {
+        return this.locked(this.distinct::estimate);
+    }
+
+    public double distinctFractionsError() {
+        return this.distinct.relativeError();
+    }
+
+    public double quantile(double rank) {
+        return this.locked(() -> this.decimals.quantile(rank));
+    }
+
+    public double quantileRankError() {
+        return this.decimals.rankError();
+    }
+
+    // Largest first, ties by id; every candidate estimated again, as others may have added to its counters since
+    public List<HeavyHitter> heavyHitters(int limit) {
+        if (limit < 0 || limit > HEAVY_HITTERS) {
+            throw new IllegalArgumentException("Heavy hitters limit out of [0, " + HEAVY_HITTERS + "]: " + limit);
+        }
+        return this.locked(() -> this.heavyHitters.keySet().stream()
+                .map(id -> new HeavyHitter(id, this.volumes.estimate(id)))
+                .sorted(Comparator.comparingLong(HeavyHitter::fractions).reversed().thenComparing(HeavyHitter::id))
+                .limit(limit)
+                .toList());
+    }
+
+    public long fractionsOf(String id) {
+        return this.locked(() -> this.volumes.estimate(id));
+    }
+
+    public long fractionsOfError() {
+        return this.locked(this.volumes::error);
+    }
+
+    public double fractionsOfConfidence() {
+        return this.volumes.confidence();
+    }
+}
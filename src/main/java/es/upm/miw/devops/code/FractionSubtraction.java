@@ -0,0 +1,49 @@
+package es.upm.miw.devops.code;
+
+// First fraction found minus every later one, kept as minuend and sum of subtrahends so partial results can be combined
+final class FractionSubtraction {
+
+    private boolean hasMinuend;
+    private int minuendNumerator;
+    private int minuendDenominator;
+    private final FractionAccumulator subtrahends = new FractionAccumulator();
+
+    void accept(User user) {
+        FractionColumns.Snapshot fractions = user.getFractionColumns().snapshot();
+        int start = 0;
+        if (!this.hasMinuend && fractions.size() > 0) {
+            this.setMinuend(fractions.numerator(0), fractions.denominator(0));
+            start = 1;
+        }
+        for (int i = start; i < fractions.size(); i++) {
+            this.subtrahends.add(fractions.numerator(i), fractions.denominator(i));
+        }
+    }
+
+    FractionSubtraction combine(FractionSubtraction other) {
+        if (!this.hasMinuend) {
+            if (other.hasMinuend) {
+                this.setMinuend(other.minuendNumerator, other.minuendDenominator);
+            }
+        } else if (other.hasMinuend) {
+            this.subtrahends.add(other.minuendNumerator, other.minuendDenominator);
+        }
+        this.subtrahends.combine(other.subtrahends);
+        return this;
+    }
+
+    private void setMinuend(int numerator, int denominator) {
+        this.hasMinuend = true;
+        this.minuendNumerator = numerator;
+        this.minuendDenominator = denominator;
+    }
+
+    Fraction toFraction() {
+        if (!this.hasMinuend) {
+            return null;
+        }
+        return AdaptiveFraction.of(this.minuendNumerator, this.minuendDenominator)
+                .subtract(this.subtrahends.toAdaptiveFraction())
+                .toFraction();
+    }
+}
@@ -0,0 +1,56 @@
+package es.upm.miw.devops.code;
+
+// Distinct count of 64-bit hashes in 2^precision one-byte registers, with relative standard error 1.04 / sqrt(2^precision)
+final class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision out of [4, 18]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    // The hash must already be well mixed (see mix64); its first bits pick the register
+    void add(long hash) {
+        int register = (int) (hash >>> (64 - this.precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << this.precision), 64 - this.precision) + 1;
+        if (rank > this.registers[register]) {
+            this.registers[register] = (byte) rank;
+        }
+    }
+
+    long estimate() {
+        int m = this.registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : this.registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros); // linear counting while many registers are still empty
+        }
+        return Math.round(estimate);
+    }
+
+    double relativeError() {
+        return 1.04 / Math.sqrt(this.registers.length);
+    }
+
+    // MurmurHash3's 64-bit finalizer: a bijection that spreads every input bit over the whole hash
+    static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,162 @@
+package es.upm.miw.devops.code;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * KLL quantile sketch (Karnin, Lang, Liberty): levels of values where each value on level h stands for 2^h of them.
+ * A full level is sorted and every second value, from a random first one, moves up a level. Level capacities shrink
+ * by 2/3 going down from the top, so the sketch holds about 3k values however many it has seen.
+ */
+final class KllSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels = {new double[0]};
+    private int[] sizes = {0};
+    private int size;
+    private int maxSize;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    KllSketch(int k, long seed) {
+        if (k < 8) {
+            throw new IllegalArgumentException("KLL k below 8: " + k);
+        }
+        this.k = k;
+        this.random = new SplittableRandom(seed);
+        this.maxSize = this.capacity(0);
+    }
+
+    // NaN has no rank, so it is left out
+    void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (this.count == 0 || value < this.min) {
+            this.min = value;
+        }
+        if (this.count == 0 || value > this.max) {
+            this.max = value;
+        }
+        this.count++;
+        this.append(0, value);
+        this.size++;
+        if (this.size >= this.maxSize) {
+            this.compress();
+        }
+    }
+
+    long count() {
+        return this.count;
+    }
+
+    int retained() {
+        return this.size;
+    }
+
+    // A value whose rank is within rankError() * count() of rank * count(), with 99% confidence; NaN when empty.
+    // Ranks 0 and 1 give the exact minimum and maximum
+    double quantile(double rank) {
+        if (!(rank >= 0 && rank <= 1)) {
+            throw new IllegalArgumentException("Rank out of [0, 1]: " + rank);
+        }
+        if (this.count == 0 || rank == 0) {
+            return this.min;
+        }
+        if (rank == 1) {
+            return this.max;
+        }
+        double[] values = new double[this.size];
+        long[] weights = new long[this.size];
+        Integer[] order = new Integer[this.size];
+        int item = 0;
+        for (int h = 0; h < this.levels.length; h++) {
+            for (int i = 0; i < this.sizes[h]; i++) {
+                values[item] = this.levels[h][i];
+                weights[item] = 1L << h;
+                order[item] = item;
+                item++;
+            }
+        }
+        Arrays.sort(order, (left, right) -> Double.compare(values[left], values[right]));
+        long total = 0;
+        for (long weight : weights) {
+            total += weight;
+        }
+        double target = rank * total;
+        long cumulative = 0;
+        for (int index : order) {
+            cumulative += weights[index];
+            if (cumulative >= target) {
+                return values[index];
+            }
+        }
+        return this.max;
+    }
+
+    // Normalized rank error at 99% confidence, as measured for KLL sketches of this k (2.446 / k^0.9433)
+    double rankError() {
+        return 2.446 / Math.pow(this.k, 0.9433);
+    }
+
+    private int capacity(int level) {
+        int depth = this.levels.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(this.k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        double[] values = this.levels[level];
+        if (this.sizes[level] == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, 2 * values.length));
+            this.levels[level] = values;
+        }
+        values[this.sizes[level]++] = value;
+    }
+
+    private void compress() {
+        for (int h = 0; h < this.levels.length; h++) {
+            if (this.sizes[h] >= this.capacity(h)) {
+                if (h + 1 == this.levels.length) {
+                    this.grow();
+                }
+                this.compact(h);
+                if (this.size < this.maxSize) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Halves an even number of values into the next level; an odd one out stays behind
+    private void compact(int level) {
+        double[] values = this.levels[level];
+        int count = this.sizes[level];
+        Arrays.sort(values, 0, count);
+        int kept = count & 1;
+        double leftOver = values[count - 1];
+        int moving = count - kept;
+        for (int i = this.random.nextInt(2); i < moving; i += 2) {
+            this.append(level + 1, values[i]);
+        }
+        this.sizes[level] = 0;
+        if (kept == 1) {
+            values[this.sizes[level]++] = leftOver;
+        }
+        this.size -= moving / 2;
+    }
+
+    private void grow() {
+        this.levels = Arrays.copyOf(this.levels, this.levels.length + 1);
+        this.levels[this.levels.length - 1] = new double[0];
+        this.sizes = Arrays.copyOf(this.sizes, this.sizes.length + 1);
+        int maxSize = 0;
+        for (int h = 0; h < this.levels.length; h++) {
+            maxSize += this.capacity(h);
+        }
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,206 @@
+package es.upm.miw.devops.code;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Several searches answered by a single pass over the users: every query is a Collector and sees each user once.
+ * SearchBatch batch = searches.batch();
+ * SearchBatch.Query<List<String>> ids = batch.userIdsBySomeProperFraction();
+ * SearchBatch.Query<Map<String, Fraction>> sums = batch.fractionAdditionByUser();
+ * batch.run();
+ * A query that fails (an ArithmeticException on overflow) only fails its own result(), as if it had run alone.
+ */
+public final class SearchBatch {
+
+    public static final class Query<R> {
+        private final Collector<User, Object, R> collector;
+        private R result;
+        private RuntimeException failure;
+        private boolean answered;
+
+        @SuppressWarnings("unchecked")
+        private Query(Collector<User, ?, R> collector) {
+            this.collector = (Collector<User, Object, R>) collector;
+        }
+
+        public R result() {
+            if (!this.answered) {
+                throw new IllegalStateException("Search batch not run since this query was added");
+            }
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            return this.result;
+        }
+
+        private void answer(Object state) {
+            this.result = null;
+            this.failure = null;
+            if (state instanceof Failed failed) {
+                this.failure = failed.exception();
+            } else {
+                try {
+                    this.result = this.collector.finisher().apply(state);
+                } catch (RuntimeException exception) {
+                    this.failure = exception;
+                }
+            }
+            this.answered = true;
+        }
+    }
+
+    // The state of a query once its collector threw; the other queries of the pass go on
+    private record Failed(RuntimeException exception) {
+    }
+
+    private final UsersDatabase usersDatabase;
+    private final boolean parallel;
+    private final Consumer<Searches.Measurement> measurementListener;
+    private final List<Query<?>> queries = new ArrayList<>();
+
+    SearchBatch(UsersDatabase usersDatabase, boolean parallel, Consumer<Searches.Measurement> measurementListener) {
+        this.usersDatabase = usersDatabase;
+        this.parallel = parallel;
+        this.measurementListener = measurementListener;
+    }
+
+    public Query<List<String>> userIdsBySomeProperFraction() {
+        return this.add(Collectors.filtering(User::hasProperFraction, Collectors.mapping(User::getId,
+                Collectors.toList())));
+    }
+
+    public Query<List<String>> userFamilyNamesBySomeImproperFraction() {
+        return this.add(Collectors.filtering(User::hasImproperFraction, Collectors.mapping(User::getFamilyName,
+                Collectors.toList())));
+    }
+
+    public Query<Fraction> fractionAdditionByUserId(String id) {
+        Objects.requireNonNull(id);
+        return this.add(Collectors.filtering(user -> id.equals(user.getId()), fractionAddition()));
+    }
+
+    // In id order, only users with some fraction
+    public Query<Map<String, Fraction>> fractionAdditionByUser() {
+        return this.add(Collector.<User, Map<String, Fraction>>of(LinkedHashMap::new,
+                (sums, user) -> {
+                    if (user.getFractionColumns().size() > 0) {
+                        FractionAccumulator sum = new FractionAccumulator();
+                        user.getFractionColumns().addTo(sum);
+                        sums.put(user.getId(), sum.toFraction());
+                    }
+                }, (left, right) -> {
+                    left.putAll(right);
+                    return left;
+                }));
+    }
+
+    public Query<Fraction> fractionSubtractionByUserName(String name) {
+        Objects.requireNonNull(name);
+        return this.add(Collectors.filtering(user -> name.equals(user.getName()),
+                Collector.of(FractionSubtraction::new, FractionSubtraction::accept, FractionSubtraction::combine,
+                        FractionSubtraction::toFraction)));
+    }
+
+    public <R> Query<R> add(Collector<User, ?, R> collector) {
+        Query<R> query = new Query<>(collector);
+        this.queries.add(query);
+        return query;
+    }
+
+    public int size() {
+        return this.queries.size();
+    }
+
+    // Answers every query added so far; running again recomputes all of them
+    public void run() {
+        SearchProbe probe = this.measurementListener == Searches.NO_MEASUREMENT ? null
+                : new SearchProbe(Searches.SEARCH_BATCH, this.measurementListener, this.parallel);
+        Stream<User> users = this.usersDatabase.findAll();
+        if (this.parallel) {
+            users = users.parallel();
+        }
+        if (probe != null) {
+            users = users.peek(probe::scanned);
+        }
+        List<Query<?>> answering = List.copyOf(this.queries);
+        Pass pass = new Pass(answering);
+        Object[] states = users.collect(pass::newStates, pass::accumulate, pass::combine);
+        for (int i = 0; i < states.length; i++) {
+            answering.get(i).answer(states[i]);
+        }
+        if (probe != null) {
+            probe.report(states.length);
+        }
+    }
+
+    // The collectors' functions, taken once so the per-user loop only indexes arrays (created raw, as generic arrays
+    // cannot be)
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final class Pass {
+        private final Supplier<Object>[] suppliers;
+        private final BiConsumer<Object, User>[] accumulators;
+        private final BinaryOperator<Object>[] combiners;
+
+        Pass(List<Query<?>> queries) {
+            this.suppliers = new Supplier[queries.size()];
+            this.accumulators = new BiConsumer[queries.size()];
+            this.combiners = new BinaryOperator[queries.size()];
+            for (int i = 0; i < queries.size(); i++) {
+                Collector<User, Object, ?> collector = queries.get(i).collector;
+                this.suppliers[i] = collector.supplier();
+                this.accumulators[i] = collector.accumulator();
+                this.combiners[i] = collector.combiner();
+            }
+        }
+
+        Object[] newStates() {
+            Object[] states = new Object[this.suppliers.length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = this.suppliers[i].get();
+            }
+            return states;
+        }
+
+        void accumulate(Object[] states, User user) {
+            for (int i = 0; i < states.length; i++) {
+                if (!(states[i] instanceof Failed)) {
+                    try {
+                        this.accumulators[i].accept(states[i], user);
+                    } catch (RuntimeException exception) {
+                        states[i] = new Failed(exception);
+                    }
+                }
+            }
+        }
+
+        void combine(Object[] left, Object[] right) {
+            for (int i = 0; i < left.length; i++) {
+                if (right[i] instanceof Failed) {
+                    left[i] = left[i] instanceof Failed ? left[i] : right[i];
+                } else if (!(left[i] instanceof Failed)) {
+                    try {
+                        left[i] = this.combiners[i].apply(left[i], right[i]);
+                    } catch (RuntimeException exception) {
+                        left[i] = new Failed(exception);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Collector<User, FractionAccumulator, Fraction> fractionAddition() {
+        return Collector.of(FractionAccumulator::new, (accumulator, user) -> user.getFractionColumns().addTo(accumulator),
+                FractionAccumulator::combine, accumulator -> accumulator.isEmpty() ? null : accumulator.toFraction());
+    }
+}
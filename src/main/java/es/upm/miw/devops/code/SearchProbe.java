@@ -0,0 +1,141 @@
+package es.upm.miw.devops.code;
+
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Measures one search; a lazy result is reported once fully drained, or on close if the consumer stopped early.
+// Sequential searches count in plain fields; only parallel ones pay for LongAdder updates
+final class SearchProbe {
+
+    private final String search;
+    private final Consumer<Searches.Measurement> listener;
+    private final long start = System.nanoTime();
+    private final boolean parallel;
+    private long usersScanned;
+    private long fractionsScanned;
+    private long resultSize;
+    private final LongAdder parallelUsersScanned;
+    private final LongAdder parallelFractionsScanned;
+    private final LongAdder parallelResultSize;
+    private final AtomicInteger pendingSplits = new AtomicInteger(1);
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    SearchProbe(String search, Consumer<Searches.Measurement> listener, boolean parallel) {
+        this.search = search;
+        this.listener = listener;
+        this.parallel = parallel;
+        this.parallelUsersScanned = parallel ? new LongAdder() : null;
+        this.parallelFractionsScanned = parallel ? new LongAdder() : null;
+        this.parallelResultSize = parallel ? new LongAdder() : null;
+    }
+
+    void scanned(User user) {
+        int fractions = user.getFractionColumns().size();
+        if (this.parallel) {
+            this.parallelUsersScanned.increment();
+            this.parallelFractionsScanned.add(fractions);
+        } else {
+            this.usersScanned++;
+            this.fractionsScanned += fractions;
+        }
+    }
+
+    private void result() {
+        if (this.parallel) {
+            this.parallelResultSize.increment();
+        } else {
+            this.resultSize++;
+        }
+    }
+
+    void report(long size) {
+        this.resultSize += size;
+        this.report();
+    }
+
+    private void report() {
+        if (this.reported.compareAndSet(false, true)) {
+            long users = this.usersScanned;
+            long fractions = this.fractionsScanned;
+            long results = this.resultSize;
+            if (this.parallel) {
+                users += this.parallelUsersScanned.sum();
+                fractions += this.parallelFractionsScanned.sum();
+                results += this.parallelResultSize.sum();
+            }
+            this.listener.accept(new Searches.Measurement(this.search, System.nanoTime() - this.start,
+                    users, fractions, results));
+        }
+    }
+
+    <T> Stream<T> observe(Stream<T> results) {
+        return StreamSupport.stream(new CountingSpliterator<>(results.spliterator()), results.isParallel())
+                .onClose(results::close)
+                .onClose(this::report);
+    }
+
+    private final class CountingSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> delegate;
+        private boolean exhausted;
+
+        CountingSpliterator(Spliterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (this.delegate.tryAdvance(result -> {
+                SearchProbe.this.result();
+                action.accept(result);
+            })) {
+                return true;
+            }
+            this.exhausted();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            this.delegate.forEachRemaining(result -> {
+                SearchProbe.this.result();
+                action.accept(result);
+            });
+            this.exhausted();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> split = this.delegate.trySplit();
+            if (split == null) {
+                return null;
+            }
+            SearchProbe.this.pendingSplits.incrementAndGet();
+            return new CountingSpliterator<>(split);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.delegate.estimateSize();
+        }
+
+        // Not SIZED, so count() still traverses and scans are measured
+        @Override
+        public int characteristics() {
+            return this.delegate.characteristics() & ~(SIZED | SUBSIZED);
+        }
+
+        private void exhausted() {
+            if (!this.exhausted) {
+                this.exhausted = true;
+                if (SearchProbe.this.pendingSplits.decrementAndGet() == 0) {
+                    SearchProbe.this.report();
+                }
+            }
+        }
+    }
+}
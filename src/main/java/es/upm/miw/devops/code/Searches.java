@@ -1,41 +1,182 @@
 package es.upm.miw.devops.code;
 
-import java.util.Objects;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class Searches {
 
+    public static final String FRACTION_ADDITION_BY_USER_ID = "fractionAdditionByUserId";
+    public static final String USER_ID_BY_SOME_PROPER_FRACTION = "userIdBySomeProperFraction";
+    public static final String USER_FAMILY_NAME_BY_SOME_IMPROPER_FRACTION = "userFamilyNameBySomeImproperFraction";
+    public static final String FRACTION_SUBTRACTION_BY_USER_NAME = "fractionSubtractionByUserName";
+    public static final String SEARCH_BATCH = "searchBatch";
+    public static final String USER_QUERY = "userQuery";
+    public static final String FRACTION_ADDITION_BY_USER_QUERY = "fractionAdditionByUserQuery";
+    public static final String USER_BY_SOME_FRACTION_BETWEEN = "userBySomeFractionBetween";
+    public static final String LARGEST_FRACTIONS = "largestFractions";
+
+    // fractionsScanned counts the fractions held by the users visited, whether or not each one had to be read
+    public record Measurement(String search, long elapsedNanos, long usersScanned, long fractionsScanned,
+                              long resultSize) {
+    }
+
+    public static final Consumer<Measurement> NO_MEASUREMENT = measurement -> {
+    };
+
+    private final UsersDatabase usersDatabase;
+    private final boolean parallel;
+    private final Consumer<Measurement> measurementListener;
+
+    public Searches() {
+        this(new UsersDatabase());
+    }
+
+    public Searches(UsersDatabase usersDatabase) {
+        this(usersDatabase, false);
+    }
+
+    public Searches(UsersDatabase usersDatabase, boolean parallel) {
+        this(usersDatabase, parallel, NO_MEASUREMENT);
+    }
+
+    public Searches(UsersDatabase usersDatabase, boolean parallel, Consumer<Measurement> measurementListener) {
+        this.usersDatabase = usersDatabase;
+        this.parallel = parallel;
+        this.measurementListener = measurementListener;
+    }
+
+    public Searches parallel() {
+        return this.parallel ? this : new Searches(this.usersDatabase, true, this.measurementListener);
+    }
+
+    public Searches sequential() {
+        return this.parallel ? new Searches(this.usersDatabase, false, this.measurementListener) : this;
+    }
+
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    // Queries added to the batch are answered together by one scan, measured once as SEARCH_BATCH
+    public SearchBatch batch() {
+        return new SearchBatch(this.usersDatabase, this.parallel, this.measurementListener);
+    }
+
+    protected Consumer<Measurement> getMeasurementListener() {
+        return this.measurementListener;
+    }
+
+    private Stream<User> users(Stream<User> users) {
+        return this.parallel ? users.parallel() : users;
+    }
+
+    private SearchProbe probe(String search) {
+        if (this.measurementListener == NO_MEASUREMENT) {
+            return null;
+        }
+        return new SearchProbe(search, this.measurementListener, this.parallel);
+    }
+
     public Fraction findFractionAdditionByUserId(String id) {
-        return new UsersDatabase().findAll()
-                .filter(user -> id.equals(user.getId()))
-                .flatMap(user -> user.getFractions().stream())
-                .filter(Objects::nonNull)
-                .reduce(Fraction::add)
-                .orElse(null);
+        SearchProbe probe = this.probe(FRACTION_ADDITION_BY_USER_ID);
+        FractionAccumulator accumulator = new FractionAccumulator();
+        this.usersDatabase.findById(id).ifPresent(user -> {
+            if (probe != null) {
+                probe.scanned(user);
+            }
+            user.getFractionColumns().addTo(accumulator);
+        });
+        Fraction result = accumulator.isEmpty() ? null : accumulator.toFraction();
+        if (probe != null) {
+            probe.report(result == null ? 0 : 1);
+        }
+        return result;
     }
 
     public Stream<String> findUserIdBySomeProperFraction() {
-        return new UsersDatabase().findAll()
-                .filter(user -> user.getFractions().stream()
-                        .filter(Objects::nonNull)
-                        .anyMatch(Fraction::isProper))
+        return this.findUserBySomeProperFraction(null)
                 .map(User::getId);
     }
 
     public Stream<String> findUserFamilyNameBySomeImproperFraction() {
-        return new UsersDatabase().findAll()
-                .filter(user -> user.getFractions().stream()
-                        .filter(Objects::nonNull)
-                        .anyMatch(Fraction::isImproper))
+        return this.findUserBySomeImproperFraction(null)
                 .map(User::getFamilyName);
     }
 
+    // In id order after afterId (exclusive), so the last id returned is the cursor of the next page
+    public Stream<User> findUserBySomeProperFraction(String afterId) {
+        return this.scan(USER_ID_BY_SOME_PROPER_FRACTION, this.usersDatabase.findAllAfter(afterId),
+                User::hasProperFraction);
+    }
+
+    public Stream<User> findUserBySomeImproperFraction(String afterId) {
+        return this.scan(USER_FAMILY_NAME_BY_SOME_IMPROPER_FRACTION, this.usersDatabase.findAllAfter(afterId),
+                User::hasImproperFraction);
+    }
+
+    private Stream<User> scan(String search, Stream<User> users, Predicate<User> filter) {
+        SearchProbe probe = this.probe(search);
+        if (probe == null) {
+            return this.users(users).filter(filter);
+        }
+        return probe.observe(this.users(users).peek(probe::scanned).filter(filter));
+    }
+
+    // Exact bounds, both included; answered by the fraction index, so no user is scanned
+    public Stream<User> findUserBySomeFractionBetween(Fraction min, Fraction max) {
+        SearchProbe probe = this.probe(USER_BY_SOME_FRACTION_BETWEEN);
+        Stream<User> users = this.usersDatabase.findBySomeFractionBetween(min, max);
+        return probe == null ? users : probe.observe(users);
+    }
+
+    public List<UserFraction> findLargestFractions(int limit) {
+        SearchProbe probe = this.probe(LARGEST_FRACTIONS);
+        List<UserFraction> largest = this.usersDatabase.findLargestFractions(limit);
+        if (probe != null) {
+            probe.report(largest.size());
+        }
+        return largest;
+    }
+
+    public Stream<User> find(UserQuery query) {
+        return this.find(query.compile());
+    }
+
+    // In id order, reading only the index the query names and pruning users by their fraction counts
+    public Stream<User> find(CompiledUserQuery query) {
+        return this.scan(USER_QUERY, query.candidates(this.usersDatabase), query.predicate());
+    }
+
+    // Adds up each matching user's precomputed sum instead of every fraction
+    public Fraction findFractionAddition(CompiledUserQuery query) {
+        SearchProbe probe = this.probe(FRACTION_ADDITION_BY_USER_QUERY);
+        Stream<User> users = this.users(query.candidates(this.usersDatabase));
+        if (probe != null) {
+            users = users.peek(probe::scanned);
+        }
+        if (query.hasPredicate()) {
+            users = users.filter(query.predicate());
+        }
+        FractionAccumulator accumulator = users.collect(FractionAccumulator::new,
+                (sum, user) -> user.getFractionColumns().addTo(sum), FractionAccumulator::combine);
+        Fraction result = accumulator.isEmpty() ? null : accumulator.toFraction();
+        if (probe != null) {
+            probe.report(result == null ? 0 : 1);
+        }
+        return result;
+    }
+
     public Fraction findFractionSubtractionByUserName(String name) {
-        return new UsersDatabase().findAll()
-                .filter(user -> name.equals(user.getName()))
-                .flatMap(user -> user.getFractions().stream())
-                .filter(Objects::nonNull)
-                .reduce((a, b) -> a.add(new Fraction(-b.getNumerator(), b.getDenominator())))
-                .orElse(null);
+        SearchProbe probe = this.probe(FRACTION_SUBTRACTION_BY_USER_NAME);
+        Stream<User> users = this.users(this.usersDatabase.findByName(name));
+        Fraction result = (probe == null ? users : users.peek(probe::scanned))
+                .collect(FractionSubtraction::new, FractionSubtraction::accept, FractionSubtraction::combine)
+                .toFraction();
+        if (probe != null) {
+            probe.report(result == null ? 0 : 1);
+        }
+        return result;
     }
 }
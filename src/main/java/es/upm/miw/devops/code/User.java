@@ -1,19 +1,22 @@
 package es.upm.miw.devops.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class User {
     private String id;
     private String name;
     private String familyName;
-    private List<Fraction> fractions;
+    private volatile FractionColumns fractions; // replaced whole by setFractions, appended to in place
 
     public User() {
-        this.fractions = new ArrayList<>();
+        this.fractions = new FractionColumns();
     }
 
     public User(String id, String name, String familyName, List<Fraction> fractions) {
+        this(id, name, familyName, new FractionColumns(fractions));
+    }
+
+    User(String id, String name, String familyName, FractionColumns fractions) {
         this.id = id;
         this.name = name;
         this.familyName = familyName;
@@ -41,13 +44,38 @@ public class User {
     }
 
     public List<Fraction> getFractions() {
-        return fractions;
+        return this.fractions.asList();
     }
 
     public void setFractions(List<Fraction> fractions) {
-        this.fractions = fractions;
+        this.fractions = new FractionColumns(fractions);
+    }
+
+    FractionColumns getFractionColumns() {
+        return this.fractions;
+    }
+
+    public boolean hasProperFraction() {
+        return this.fractions.properCount() > 0;
+    }
+
+    public boolean hasImproperFraction() {
+        return this.fractions.improperCount() > 0;
+    }
+
+    public int properFractionCount() {
+        return this.fractions.properCount();
+    }
+
+    public int improperFractionCount() {
+        return this.fractions.improperCount();
+    }
+
+    public AdaptiveFraction fractionSum() {
+        return this.fractions.sum();
     }
 
+    // On a stored user, caches and indexes of the UsersDatabase only see it once saved again (or use its addFraction)
     public void addFraction(Fraction fraction) {
         this.fractions.add(fraction);
     }
@@ -66,7 +94,7 @@ public class User {
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
                 ", familyName='" + familyName + '\'' +
-                ", fractions=" + fractions +
+                ", fractions=" + this.getFractions() +
                 '}';
     }
 }
\ No newline at end of file
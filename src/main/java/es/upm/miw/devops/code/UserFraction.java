@@ -0,0 +1,5 @@
+package es.upm.miw.devops.code;
+
+// One fraction as held by its user, as found by the fraction index of a UsersDatabase
+public record UserFraction(User user, Fraction fraction) {
+}
@@ -0,0 +1,82 @@
+package es.upm.miw.devops.code;
+
+import java.util.Objects;
+
+/*
+ * Users by field equality and by having some fraction that passes a FractionFilter, e.g.
+ * UserQuery.users().name("Ana").withSomeFraction(FractionFilter.fractions().decimalBetween(0, 0.5))
+ * Compiling picks the index to read and reduces the filter to precomputed counts plus a primitive predicate.
+ */
+public final class UserQuery {
+
+    private static final UserQuery ALL = new UserQuery();
+
+    // Only set while building a copy, so a published query never changes
+    private String id;
+    private String name;
+    private String familyName;
+    private FractionFilter someFraction;
+
+    private UserQuery() {
+    }
+
+    private UserQuery(UserQuery other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.familyName = other.familyName;
+        this.someFraction = other.someFraction;
+    }
+
+    public static UserQuery users() {
+        return ALL;
+    }
+
+    public UserQuery id(String id) {
+        UserQuery query = new UserQuery(this);
+        query.id = Objects.requireNonNull(id);
+        return query;
+    }
+
+    public UserQuery name(String name) {
+        UserQuery query = new UserQuery(this);
+        query.name = Objects.requireNonNull(name);
+        return query;
+    }
+
+    public UserQuery familyName(String familyName) {
+        UserQuery query = new UserQuery(this);
+        query.familyName = Objects.requireNonNull(familyName);
+        return query;
+    }
+
+    public UserQuery withSomeFraction(FractionFilter filter) {
+        UserQuery query = new UserQuery(this);
+        query.someFraction = Objects.requireNonNull(filter);
+        return query;
+    }
+
+    public CompiledUserQuery compile() {
+        int allowedClasses = this.someFraction == null ? FractionClass.ALL : this.someFraction.allowedClasses();
+        FractionPredicate residual = this.someFraction == null ? null : this.someFraction.residual();
+        return new CompiledUserQuery(this.id, this.name, this.familyName, this.someFraction != null,
+                allowedClasses, residual, this.toString());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder query = new StringBuilder("users");
+        if (this.id != null) {
+            query.append(" id=").append(this.id);
+        }
+        if (this.name != null) {
+            query.append(" name=").append(this.name);
+        }
+        if (this.familyName != null) {
+            query.append(" familyName=").append(this.familyName);
+        }
+        if (this.someFraction != null) {
+            query.append(" withSomeFraction(").append(this.someFraction).append(')');
+        }
+        return query.toString();
+    }
+}
@@ -1,11 +1,60 @@
 package es.upm.miw.devops.code;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public class UsersDatabase {
 
-    public Stream<User> findAll() {
+    private static final int STRIPES = 64;
+
+    private final ConcurrentNavigableMap<String, User> users = new ConcurrentSkipListMap<>();
+    private final Map<String, Stored> usersById = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<String, User>> usersByName = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<String, User>> usersByFamilyName = new ConcurrentHashMap<>();
+    private final List<BiConsumer<IndexEntry, IndexEntry>> changeListeners = new CopyOnWriteArrayList<>();
+    // Writers of different ids only meet on the concurrent maps; one id always maps to the same stripe.
+    // ReentrantLock rather than synchronized, so a blocked virtual thread releases its carrier
+    private final ReentrantLock[] stripes = newStripes(STRIPES);
+    private final AtomicInteger size = new AtomicInteger();
+    // Built on its first query, then kept current by every save and delete
+    private final FractionIndex fractionIndex = new FractionIndex();
+    // While it is built, writers only record the ids they change, replayed before it is published
+    private volatile Set<String> indexChanges;
+    private volatile boolean indexLive;
+    // Likewise built on first use, then fed the fractions each save adds; fed from the start of its build, but only
+    // published once built
+    private volatile FractionStatistics feeding;
+    private volatile FractionStatistics statistics;
+    // First readers of a structure still to build wait on it; writers never do
+    private final ReentrantLock building = new ReentrantLock();
+
+    public UsersDatabase() {
+        this(sampleUsers());
+    }
+
+    // Through the private store, as an overridden save() would run before a subclass is initialized
+    public UsersDatabase(Collection<User> users) {
+        users.forEach(user -> Objects.requireNonNull(user.getId()));
+        for (User user : users) {
+            this.store(user);
+        }
+    }
+
+    private static List<User> sampleUsers() {
 
         List<Fraction> fractions1 = List.of(
                 new Fraction(0, 1),
@@ -40,7 +89,7 @@ public class UsersDatabase {
                 new Fraction(1, 1)
         );
 
-        return Stream.of(
+        return List.of(
                 new User("1", "Oscar", "Fernandez", fractions1),
                 new User("2", "Ana", "Blanco", fractions2),
                 new User("3", "Oscar", "López", fractions3),
@@ -49,4 +98,312 @@ public class UsersDatabase {
                 new User("6", "Paula", "Torres", fractions6)
         );
     }
-}
\ No newline at end of file
+
+    public Stream<User> findAll() {
+        return this.users.values().stream();
+    }
+
+    // Users in id order after the given id (exclusive); a null id starts from the first user
+    public Stream<User> findAllAfter(String id) {
+        return id == null ? this.findAll() : this.users.tailMap(id, false).values().stream();
+    }
+
+    public Optional<User> findById(String id) {
+        Stored stored = this.usersById.get(Objects.requireNonNull(id));
+        return stored == null ? Optional.empty() : Optional.of(stored.entry().user());
+    }
+
+    public Stream<User> findByName(String name) {
+        return findIn(this.usersByName, name);
+    }
+
+    public Stream<User> findByFamilyName(String familyName) {
+        return findIn(this.usersByFamilyName, familyName);
+    }
+
+    private static Stream<User> findIn(Map<String, ConcurrentNavigableMap<String, User>> index, String key) {
+        ConcurrentNavigableMap<String, User> bucket = index.get(Objects.requireNonNull(key));
+        return bucket == null ? Stream.empty() : bucket.values().stream();
+    }
+
+    // Users with some fraction from min to max (both included), in the order of their smallest such fraction
+    public Stream<User> findBySomeFractionBetween(Fraction min, Fraction max) {
+        Objects.requireNonNull(min);
+        Objects.requireNonNull(max);
+        return this.fractionIndex().usersBetween(min, max);
+    }
+
+    // At most limit fractions, largest first, each one as many times as its user holds it
+    public List<UserFraction> findLargestFractions(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        return this.fractionIndex().largest(limit);
+    }
+
+    // How many fractions of all users are strictly below the value
+    public int countFractionsBelow(Fraction value) {
+        return this.fractionIndex().rank(Objects.requireNonNull(value));
+    }
+
+    // The fraction with rank fractions of all users below it, if there are that many
+    public Optional<UserFraction> findFractionByRank(int rank) {
+        return rank < 0 ? Optional.empty() : Optional.ofNullable(this.fractionIndex().select(rank));
+    }
+
+    public int fractionCount() {
+        return this.fractionIndex().size();
+    }
+
+    // Fractions appended to the columns a user was last counted with count once; columns replaced (setFractions, or
+    // saving another User object) count whole again. Built without stopping the writers: they feed the statistics from
+    // the start, and each user not fed yet is added under its own stripe
+    public FractionStatistics statistics() {
+        if (this.statistics == null) {
+            this.building.lock();
+            try {
+                if (this.statistics == null) {
+                    FractionStatistics statistics = new FractionStatistics();
+                    this.feeding = statistics;
+                    for (String id : this.users.keySet()) {
+                        this.locked(id, () -> {
+                            Stored stored = this.usersById.get(id);
+                            if (stored != null && stored.counted() < 0) {
+                                this.usersById.put(id, this.counted(null, stored.entry()));
+                            }
+                            return null;
+                        });
+                    }
+                    this.statistics = statistics;
+                }
+            } finally {
+                this.building.unlock();
+            }
+        }
+        return this.statistics;
+    }
+
+    // Under the stripe of the user: feeds its fractions past those counted before and records how many are counted
+    private Stored counted(Stored previous, IndexEntry entry) {
+        User user = entry.user();
+        FractionColumns columns = user.getFractionColumns();
+        FractionStatistics statistics = this.feeding;
+        if (statistics == null) {
+            return new Stored(entry, columns, -1);
+        }
+        FractionColumns.Snapshot fractions = columns.snapshot();
+        boolean appended = previous != null && previous.columns() == columns && previous.counted() >= 0;
+        statistics.add(user.getId(), fractions, appended ? previous.counted() : 0);
+        return new Stored(entry, columns, fractions.size());
+    }
+
+    // Fractions appended straight to a stored User (User.addFraction) are indexed once it is saved again
+    private FractionIndex fractionIndex() {
+        if (!this.fractionIndex.isBuilt()) {
+            this.building.lock();
+            try {
+                if (!this.fractionIndex.isBuilt()) {
+                    this.buildFractionIndex();
+                }
+            } finally {
+                this.building.unlock();
+            }
+        }
+        return this.fractionIndex;
+    }
+
+    // Each user is read under its own stripe and the tree built under none; once writers apply their changes to it,
+    // every stripe is passed once so none is still recording, and the ids recorded meanwhile are replayed
+    private void buildFractionIndex() {
+        Set<String> changes = ConcurrentHashMap.newKeySet();
+        this.indexChanges = changes;
+        List<FractionIndex.Indexed> users = new ArrayList<>();
+        for (String id : this.users.keySet()) {
+            this.locked(id, () -> {
+                Stored stored = this.usersById.get(id);
+                if (stored != null) {
+                    User user = stored.entry().user();
+                    users.add(new FractionIndex.Indexed(user, user.getFractionColumns().snapshot()));
+                }
+                return null;
+            });
+        }
+        this.fractionIndex.build(users);
+        this.indexLive = true;
+        for (ReentrantLock stripe : this.stripes) {
+            stripe.lock();
+            stripe.unlock();
+        }
+        for (String id : changes) {
+            this.locked(id, () -> {
+                this.fractionIndex.changed(id, this.findById(id).orElse(null));
+                return null;
+            });
+        }
+        this.indexChanges = null;
+        this.fractionIndex.publish();
+    }
+
+    // Called under the lock of the user's stripe once every change is visible to readers, with the previous and the new
+    // entry (null if absent); the changes of one id arrive in order, those of different ids may arrive concurrently.
+    // The previous entry keeps the keys it was indexed by, even when the same User was renamed before save(). Listeners
+    // must not query fractions or statistics: their first build passes through every stripe
+    public void addChangeListener(BiConsumer<IndexEntry, IndexEntry> changeListener) {
+        this.changeListeners.add(Objects.requireNonNull(changeListener));
+    }
+
+    private void changed(IndexEntry previousEntry, IndexEntry currentEntry) {
+        User previous = previousEntry == null ? null : previousEntry.user();
+        User current = currentEntry == null ? null : currentEntry.user();
+        if (previous == null && current != null) {
+            this.size.incrementAndGet();
+        } else if (previous != null && current == null) {
+            this.size.decrementAndGet();
+        }
+        if (previous != null || current != null) {
+            String id = (previous != null ? previous : current).getId();
+            Set<String> indexChanges = this.indexChanges;
+            if (this.indexLive) {
+                this.fractionIndex.changed(id, current);
+            } else if (indexChanges != null) {
+                indexChanges.add(id);
+            }
+            this.changeListeners.forEach(listener -> listener.accept(previousEntry, currentEntry));
+        }
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    public User save(User user) {
+        return this.store(user);
+    }
+
+    private User store(User user) {
+        String id = Objects.requireNonNull(user.getId());
+        return this.locked(id, () -> {
+            IndexEntry current = new IndexEntry(user, user.getName(), user.getFamilyName());
+            Stored stored = this.counted(this.usersById.get(id), current);
+            this.users.put(id, user);
+            Stored previous = this.index(stored);
+            this.changed(previous == null ? null : previous.entry(), current);
+            return user;
+        });
+    }
+
+    // Each user is saved under its own stripe, so a bulk load does not hold back the writers of other ids
+    public void saveAll(Collection<User> users) {
+        users.forEach(user -> Objects.requireNonNull(user.getId()));
+        users.forEach(this::save);
+    }
+
+    public Optional<User> deleteById(String id) {
+        return this.locked(Objects.requireNonNull(id), () -> {
+            Stored deleted = this.unindex(id);
+            this.users.remove(id);
+            this.changed(deleted == null ? null : deleted.entry(), null);
+            return Optional.ofNullable(deleted).map(stored -> stored.entry().user());
+        });
+    }
+
+    // Appended in place to the stored user, so the index, the statistics and the listeners only see the new fraction
+    public Optional<User> addFraction(String id, Fraction fraction) {
+        return this.locked(Objects.requireNonNull(id), () -> {
+            Stored stored = this.usersById.get(id);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            IndexEntry entry = stored.entry();
+            entry.user().addFraction(fraction);
+            this.usersById.put(id, this.counted(stored, entry));
+            this.changed(entry, entry);
+            return Optional.of(entry.user());
+        });
+    }
+
+    public Optional<User> setFractions(String id, List<Fraction> fractions) {
+        return this.locked(Objects.requireNonNull(id), () -> this.findById(id).map(user ->
+                this.save(new User(user.getId(), user.getName(), user.getFamilyName(), fractions))));
+    }
+
+    private <T> T locked(String id, Supplier<T> write) {
+        ReentrantLock stripe = this.stripes[stripe(id)];
+        stripe.lock();
+        try {
+            return write.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private static int stripe(String id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        ReentrantLock[] stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    // The new entries replace the old ones before any old key is dropped, so readers never miss a stored user
+    private Stored index(Stored stored) {
+        IndexEntry entry = stored.entry();
+        User user = entry.user();
+        Stored previousStored = this.usersById.put(user.getId(), stored);
+        indexIn(this.usersByName, entry.name(), user);
+        indexIn(this.usersByFamilyName, entry.familyName(), user);
+        if (previousStored != null) {
+            IndexEntry previous = previousStored.entry();
+            if (!Objects.equals(previous.name(), entry.name())) {
+                unindexIn(this.usersByName, previous.name(), previous.user());
+            }
+            if (!Objects.equals(previous.familyName(), entry.familyName())) {
+                unindexIn(this.usersByFamilyName, previous.familyName(), previous.user());
+            }
+        }
+        return previousStored;
+    }
+
+    private Stored unindex(String id) {
+        Stored stored = this.usersById.remove(id);
+        if (stored != null) {
+            IndexEntry entry = stored.entry();
+            unindexIn(this.usersByName, entry.name(), entry.user());
+            unindexIn(this.usersByFamilyName, entry.familyName(), entry.user());
+        }
+        return stored;
+    }
+
+    // Inside compute, so a bucket emptied and dropped by another stripe cannot swallow the insertion
+    private static void indexIn(Map<String, ConcurrentNavigableMap<String, User>> index, String key, User user) {
+        if (key != null) {
+            index.compute(key, (k, bucket) -> {
+                ConcurrentNavigableMap<String, User> users = bucket == null ? new ConcurrentSkipListMap<>() : bucket;
+                users.put(user.getId(), user);
+                return users;
+            });
+        }
+    }
+
+    private static void unindexIn(Map<String, ConcurrentNavigableMap<String, User>> index, String key, User user) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(user.getId(), user);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    // Keys as they were indexed, so a user renamed before save() is still unindexed correctly
+    public record IndexEntry(User user, String name, String familyName) {
+    }
+
+    // The columns the statistics last counted for the user and how many of their fractions (-1: none yet)
+    private record Stored(IndexEntry entry, FractionColumns columns, int counted) {
+    }
+}
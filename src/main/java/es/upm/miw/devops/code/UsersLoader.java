@@ -0,0 +1,385 @@
+package es.upm.miw.devops.code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class UsersLoader {
+
+    public enum Format {
+        // id,name,familyName,1/2,-3/4,... (no quoting)
+        CSV,
+        // {"id":"1","name":"Ana","familyName":"Blanco","fractions":[{"numerator":1,"denominator":2}]}
+        NDJSON
+    }
+
+    public record Progress(long users, long fractions, long bytes, long elapsedNanos) {
+        public double usersPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.users * 1e9 / this.elapsedNanos;
+        }
+
+        public double megabytesPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.bytes * 1e9 / this.elapsedNanos / (1024 * 1024);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BATCH_SIZE = 10_000;
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final byte[] ID = "id".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NAME = "name".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FAMILY_NAME = "familyName".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FRACTIONS = "fractions".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NUMERATOR = "numerator".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DENOMINATOR = "denominator".getBytes(StandardCharsets.UTF_8);
+
+    private final UsersDatabase usersDatabase;
+    private final Consumer<Progress> progressListener;
+
+    public UsersLoader(UsersDatabase usersDatabase) {
+        this(usersDatabase, progress -> {
+        });
+    }
+
+    public UsersLoader(UsersDatabase usersDatabase, Consumer<Progress> progressListener) {
+        this.usersDatabase = usersDatabase;
+        this.progressListener = progressListener;
+    }
+
+    public Progress load(Path path, Format format) throws IOException {
+        long start = System.nanoTime();
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        long users = 0;
+        long fractions = 0;
+        long bytes = 0;
+        long line = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            boolean eof = false;
+            while (!eof) {
+                int read = channel.read(buffer);
+                eof = read < 0;
+                byte[] array = buffer.array();
+                int limit = buffer.position();
+                int recordStart = 0;
+                for (int i = 0; i < limit || eof && recordStart < limit; i++) {
+                    if (i < limit && array[i] != '\n') {
+                        continue;
+                    }
+                    line++;
+                    User user = new Parser(array, recordStart, Math.min(i, limit), line).parse(format);
+                    bytes += Math.min(i + 1, limit) - recordStart;
+                    recordStart = i + 1;
+                    if (user == null) {
+                        continue;
+                    }
+                    batch.add(user);
+                    users++;
+                    fractions += user.getFractionColumns().size();
+                    if (batch.size() == BATCH_SIZE) {
+                        this.usersDatabase.saveAll(batch);
+                        batch.clear();
+                    }
+                    if (users % PROGRESS_INTERVAL == 0) {
+                        this.progressListener.accept(new Progress(users, fractions, bytes, System.nanoTime() - start));
+                    }
+                }
+                buffer.position(Math.min(recordStart, limit)).limit(limit);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                }
+            }
+        }
+        this.usersDatabase.saveAll(batch);
+        Progress progress = new Progress(users, fractions, bytes, System.nanoTime() - start);
+        this.progressListener.accept(progress);
+        return progress;
+    }
+
+    // Parses one record in place; only id, name and familyName become Strings
+    private static final class Parser {
+        private final byte[] bytes;
+        private final int end;
+        private final long line;
+        private int position;
+
+        Parser(byte[] bytes, int start, int end, long line) {
+            this.bytes = bytes;
+            this.position = start;
+            this.end = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+            this.line = line;
+        }
+
+        User parse(Format format) {
+            this.skipWhitespace();
+            if (this.position == this.end) {
+                return null;
+            }
+            return format == Format.CSV ? this.parseCsv() : this.parseJson();
+        }
+
+        private User parseCsv() {
+            String id = this.csvField();
+            String name = this.csvField();
+            String familyName = this.csvField();
+            FractionColumns.Builder fractions = new FractionColumns.Builder();
+            while (this.position < this.end) {
+                int numerator = this.parseInt();
+                this.expect('/');
+                int denominator = this.parseInt();
+                fractions.add(this.fraction(numerator, denominator));
+                if (this.position < this.end) {
+                    this.expect(',');
+                }
+            }
+            return new User(id, name, familyName, fractions.build());
+        }
+
+        private String csvField() {
+            int start = this.position;
+            while (this.position < this.end && this.bytes[this.position] != ',') {
+                this.position++;
+            }
+            String field = new String(this.bytes, start, this.position - start, StandardCharsets.UTF_8);
+            if (this.position < this.end) {
+                this.position++;
+            }
+            return field;
+        }
+
+        private User parseJson() {
+            String id = null;
+            String name = null;
+            String familyName = null;
+            FractionColumns.Builder fractions = new FractionColumns.Builder();
+            this.expect('{');
+            this.skipWhitespace();
+            if (this.peek() == '}') {
+                this.position++;
+            } else {
+                do {
+                    this.skipWhitespace();
+                    int keyStart = this.position + 1;
+                    this.skipString();
+                    int keyEnd = this.position - 1;
+                    this.skipWhitespace();
+                    this.expect(':');
+                    this.skipWhitespace();
+                    if (this.keyEquals(keyStart, keyEnd, ID)) {
+                        id = this.jsonString();
+                    } else if (this.keyEquals(keyStart, keyEnd, NAME)) {
+                        name = this.jsonString();
+                    } else if (this.keyEquals(keyStart, keyEnd, FAMILY_NAME)) {
+                        familyName = this.jsonString();
+                    } else if (this.keyEquals(keyStart, keyEnd, FRACTIONS)) {
+                        this.jsonFractions(fractions);
+                    } else {
+                        this.skipValue();
+                    }
+                    this.skipWhitespace();
+                } while (this.consume(','));
+                this.expect('}');
+            }
+            if (id == null) {
+                throw this.error("missing id");
+            }
+            return new User(id, name, familyName, fractions.build());
+        }
+
+        private void jsonFractions(FractionColumns.Builder fractions) {
+            this.expect('[');
+            this.skipWhitespace();
+            if (this.consume(']')) {
+                return;
+            }
+            do {
+                this.skipWhitespace();
+                if (this.peek() == 'n') {
+                    this.skipValue();
+                } else {
+                    fractions.add(this.jsonFraction());
+                }
+                this.skipWhitespace();
+            } while (this.consume(','));
+            this.expect(']');
+        }
+
+        private Fraction jsonFraction() {
+            Integer numerator = null;
+            Integer denominator = null;
+            this.expect('{');
+            do {
+                this.skipWhitespace();
+                int keyStart = this.position + 1;
+                this.skipString();
+                int keyEnd = this.position - 1;
+                this.skipWhitespace();
+                this.expect(':');
+                this.skipWhitespace();
+                if (this.keyEquals(keyStart, keyEnd, NUMERATOR)) {
+                    numerator = this.parseInt();
+                } else if (this.keyEquals(keyStart, keyEnd, DENOMINATOR)) {
+                    denominator = this.parseInt();
+                } else {
+                    this.skipValue();
+                }
+                this.skipWhitespace();
+            } while (this.consume(','));
+            this.expect('}');
+            if (numerator == null) {
+                throw this.error("missing numerator");
+            }
+            if (denominator == null) {
+                throw this.error("missing denominator");
+            }
+            return this.fraction(numerator, denominator);
+        }
+
+        // Reducing to lowest terms can overflow, as Integer.MIN_VALUE / -1 does
+        private Fraction fraction(int numerator, int denominator) {
+            try {
+                return new Fraction(numerator, denominator);
+            } catch (ArithmeticException exception) {
+                throw this.error(numerator + "/" + denominator + " out of range");
+            }
+        }
+
+        private String jsonString() {
+            if (this.peek() == 'n') {
+                this.skipValue();
+                return null;
+            }
+            int start = this.position + 1;
+            boolean escaped = this.skipString();
+            String value = new String(this.bytes, start, this.position - 1 - start, StandardCharsets.UTF_8);
+            return escaped ? unescape(value) : value;
+        }
+
+        private static String unescape(String value) {
+            StringBuilder builder = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char character = value.charAt(i);
+                if (character != '\\') {
+                    builder.append(character);
+                    continue;
+                }
+                char escape = value.charAt(++i);
+                switch (escape) {
+                    case 'n' -> builder.append('\n');
+                    case 't' -> builder.append('\t');
+                    case 'r' -> builder.append('\r');
+                    case 'b' -> builder.append('\b');
+                    case 'f' -> builder.append('\f');
+                    case 'u' -> {
+                        builder.append((char) Integer.parseInt(value, i + 1, i + 5, 16));
+                        i += 4;
+                    }
+                    default -> builder.append(escape);
+                }
+            }
+            return builder.toString();
+        }
+
+        // Leaves position after the closing quote and tells whether the string had escapes
+        private boolean skipString() {
+            this.expect('"');
+            boolean escaped = false;
+            while (this.position < this.end) {
+                byte current = this.bytes[this.position++];
+                if (current == '\\') {
+                    escaped = true;
+                    this.position++;
+                } else if (current == '"') {
+                    return escaped;
+                }
+            }
+            throw this.error("unterminated string");
+        }
+
+        private void skipValue() {
+            int depth = 0;
+            do {
+                byte current = this.peek();
+                if (current == '"') {
+                    this.skipString();
+                    continue;
+                }
+                if (current == '{' || current == '[') {
+                    depth++;
+                } else if (current == '}' || current == ']') {
+                    if (depth == 0) {
+                        return;
+                    }
+                    depth--;
+                } else if (current == ',' && depth == 0) {
+                    return;
+                }
+                this.position++;
+            } while (depth > 0 || this.position < this.end && this.peek() != ',' && this.peek() != '}'
+                    && this.peek() != ']');
+        }
+
+        private int parseInt() {
+            boolean negative = this.consume('-');
+            int start = this.position;
+            long value = 0;
+            while (this.position < this.end && this.bytes[this.position] >= '0' && this.bytes[this.position] <= '9') {
+                value = value * 10 + (this.bytes[this.position++] - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw this.error("number out of range");
+                }
+            }
+            if (this.position == start) {
+                throw this.error("number expected");
+            }
+            try {
+                return Math.toIntExact(negative ? -value : value);
+            } catch (ArithmeticException exception) {
+                throw this.error("number out of range");
+            }
+        }
+
+        private boolean keyEquals(int start, int end, byte[] key) {
+            return Arrays.equals(this.bytes, start, end, key, 0, key.length);
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.end && (this.bytes[this.position] == ' ' || this.bytes[this.position] == '\t')) {
+                this.position++;
+            }
+        }
+
+        private byte peek() {
+            if (this.position >= this.end) {
+                throw this.error("unexpected end of record");
+            }
+            return this.bytes[this.position];
+        }
+
+        private boolean consume(char expected) {
+            if (this.position < this.end && this.bytes[this.position] == expected) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (!this.consume(expected)) {
+                throw this.error("'" + expected + "' expected");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Malformed record at line " + this.line + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package es.upm.miw.devops.code;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/*
+ * Layout: header | user directory | fraction pages | page checksums
+ * header:    magic, version, user count, fraction pages offset, fraction count, directory CRC32C, header CRC32C
+ * directory: per user id, name, familyName, fraction count, proper count, improper count, first fraction index
+ * pages:     per user its numerators followed by its denominators, cut every PAGE_SIZE bytes for their checksums
+ * checksums: the CRC32C of each page
+ * Counts and offsets are checked against the file size before anything is allocated or mapped by them. A page is
+ * checked when a user with fractions in it is first loaded, unless every page was checked up front.
+ */
+public final class UsersSnapshot {
+
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x4D495755; // MIWU
+    private static final int HEADER_SIZE = 40;
+    private static final int MIN_ENTRY_SIZE = 6 * Integer.BYTES + Long.BYTES; // three null strings
+    private static final int PAGE_SIZE = 1 << 16;
+    private static final long MAX_WINDOW = 1L << 30; // whole pages
+
+    private UsersSnapshot() {
+        // utility class
+    }
+
+    public static void write(UsersDatabase usersDatabase, Path path) throws IOException {
+        List<User> users = usersDatabase.findAll().toList();
+        // Taken once, so the directory and the pages agree even while fractions are being appended
+        List<FractionColumns.Snapshot> snapshots = users.stream()
+                .map(user -> user.getFractionColumns().snapshot())
+                .toList();
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            output.write(new byte[HEADER_SIZE]);
+
+            CRC32C directoryChecksum = new CRC32C();
+            DataOutputStream directory = new DataOutputStream(new CheckedOutputStream(output, directoryChecksum));
+            long fractionIndex = 0;
+            long directorySize = 0;
+            for (int index = 0; index < users.size(); index++) {
+                User user = users.get(index);
+                FractionColumns.Snapshot fractions = snapshots.get(index);
+                directorySize += writeString(directory, user.getId());
+                directorySize += writeString(directory, user.getName());
+                directorySize += writeString(directory, user.getFamilyName());
+                directory.writeInt(fractions.size());
+                directory.writeInt(fractions.properCount());
+                directory.writeInt(fractions.improperCount());
+                directory.writeLong(fractionIndex);
+                directorySize += 3 * Integer.BYTES + Long.BYTES;
+                fractionIndex += fractions.size();
+            }
+            directory.flush();
+
+            PageChecksums pageChecksums = new PageChecksums(output);
+            DataOutputStream pages = new DataOutputStream(new BufferedOutputStream(pageChecksums, PAGE_SIZE));
+            for (FractionColumns.Snapshot fractions : snapshots) {
+                for (int i = 0; i < fractions.size(); i++) {
+                    pages.writeInt(fractions.numerator(i));
+                }
+                for (int i = 0; i < fractions.size(); i++) {
+                    pages.writeInt(fractions.denominator(i));
+                }
+            }
+            pages.flush();
+            DataOutputStream checksums = new DataOutputStream(output);
+            for (int checksum : pageChecksums.finish()) {
+                checksums.writeInt(checksum);
+            }
+            checksums.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(users.size())
+                    .putLong(HEADER_SIZE + directorySize)
+                    .putLong(fractionIndex)
+                    .putInt((int) directoryChecksum.getValue());
+            header.putInt(crc32c(header.duplicate().flip())).flip();
+            channel.write(header, 0);
+            channel.force(false);
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temporary);
+            throw exception;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return Integer.BYTES;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+        return Integer.BYTES + bytes.length;
+    }
+
+    // Checks the header and the directory; each fraction page is checked when a user with fractions in it is first
+    // loaded, and a corrupted one fails whatever reads that user with an UncheckedIOException
+    public static UsersDatabase read(Path path) throws IOException {
+        return read(path, false);
+    }
+
+    // With verifyAll every fraction page is also checked before returning, as an offline check of the whole file
+    public static UsersDatabase read(Path path, boolean verifyAll) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // fill header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a users snapshot: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported users snapshot version " + version + ": " + path);
+            }
+            if (crc32c(header.slice(0, HEADER_SIZE - Integer.BYTES)) != header.getInt(HEADER_SIZE - Integer.BYTES)) {
+                throw new IOException("Corrupted users snapshot header: " + path);
+            }
+            long userCount = header.getLong();
+            long pagesOffset = header.getLong();
+            long fractionCount = header.getLong();
+            int expectedDirectoryChecksum = header.getInt();
+            if (pagesOffset < HEADER_SIZE || pagesOffset > fileSize || userCount < 0
+                    || userCount > (pagesOffset - HEADER_SIZE) / MIN_ENTRY_SIZE || fractionCount < 0
+                    || fractionCount > (fileSize - pagesOffset) / (2 * Integer.BYTES)) {
+                throw new IOException("Corrupted users snapshot header: " + path);
+            }
+            long pagesSize = fractionCount * 2 * Integer.BYTES;
+            long pageCount = (pagesSize + PAGE_SIZE - 1) / PAGE_SIZE;
+            if (pagesOffset + pagesSize + pageCount * Integer.BYTES != fileSize) {
+                throw new IOException("Truncated users snapshot: " + path);
+            }
+
+            channel.position(HEADER_SIZE);
+            CRC32C directoryChecksum = new CRC32C();
+            Directory directory = new Directory(new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), 1 << 16), directoryChecksum)),
+                    pagesOffset - HEADER_SIZE, path);
+            List<DirectoryEntry> entries = new ArrayList<>((int) Math.min(userCount, Integer.MAX_VALUE));
+            long nextFraction = 0;
+            for (long i = 0; i < userCount; i++) {
+                DirectoryEntry entry = new DirectoryEntry(directory.readString(), directory.readString(),
+                        directory.readString(), directory.readInt(), directory.readInt(), directory.readInt(),
+                        directory.readLong());
+                if (entry.fractionCount() < 0 || entry.properCount() < 0 || entry.improperCount() < 0
+                        || (long) entry.properCount() + entry.improperCount() > entry.fractionCount()
+                        || entry.fractionIndex() != nextFraction || entry.fractionCount() > fractionCount - nextFraction) {
+                    throw new IOException("Corrupted users snapshot directory: " + path);
+                }
+                nextFraction += entry.fractionCount();
+                entries.add(entry);
+            }
+            if (directory.remaining != 0 || nextFraction != fractionCount
+                    || (int) directoryChecksum.getValue() != expectedDirectoryChecksum) {
+                throw new IOException("Corrupted users snapshot directory: " + path);
+            }
+
+            Pages pages = new Pages(readChecksums(channel, pagesOffset + pagesSize, (int) pageCount), pagesSize, path);
+            if (verifyAll) {
+                pages.verifyAll(channel, pagesOffset);
+            }
+            return new UsersDatabase(mapUsers(channel, pagesOffset, pages, entries));
+        }
+    }
+
+    private static int[] readChecksums(FileChannel channel, long offset, int count) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(count * Integer.BYTES);
+        while (bytes.hasRemaining() && channel.read(bytes, offset + bytes.position()) >= 0) {
+            // fill checksums
+        }
+        int[] checksums = new int[count];
+        bytes.flip().asIntBuffer().get(checksums);
+        return checksums;
+    }
+
+    private static int crc32c(ByteBuffer bytes) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes);
+        return (int) checksum.getValue();
+    }
+
+    // Windows start at a page boundary and hold whole pages, so each user checks its pages in its own window
+    private static List<User> mapUsers(FileChannel channel, long pagesOffset, Pages pages,
+                                       List<DirectoryEntry> entries) throws IOException {
+        List<User> users = new ArrayList<>(entries.size());
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        for (DirectoryEntry entry : entries) {
+            long start = entry.fractionIndex() * 2 * Integer.BYTES;
+            long length = (long) entry.fractionCount() * 2 * Integer.BYTES;
+            if (window == null || start + length > windowStart + window.capacity()) {
+                windowStart = start - start % PAGE_SIZE;
+                long windowEnd = Math.max(windowStart + MAX_WINDOW, start + length + PAGE_SIZE - 1) / PAGE_SIZE
+                        * PAGE_SIZE;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, pagesOffset + windowStart,
+                        Math.min(windowEnd, pages.size) - windowStart);
+            }
+            IntBuffer fractions = window.slice((int) (start - windowStart), (int) length).asIntBuffer();
+            MappedByteBuffer userWindow = window;
+            long userWindowStart = windowStart;
+            users.add(new User(entry.id(), entry.name(), entry.familyName(), FractionColumns.mapped(
+                    fractions, entry.fractionCount(), entry.properCount(), entry.improperCount(),
+                    () -> pages.verify(userWindow, userWindowStart, start, length))));
+        }
+        return users;
+    }
+
+    // The checksum of every fraction page and which ones were found intact, shared by the users of one snapshot
+    private static final class Pages {
+        private final int[] checksums;
+        private final long size;
+        private final Path path;
+        private final AtomicLongArray verified;
+
+        private Pages(int[] checksums, long size, Path path) {
+            this.checksums = checksums;
+            this.size = size;
+            this.path = path;
+            this.verified = new AtomicLongArray((checksums.length + 63) >>> 6);
+        }
+
+        // The pages holding [start, start + length), inside a window starting at windowStart
+        private void verify(ByteBuffer window, long windowStart, long start, long length) {
+            for (long page = start / PAGE_SIZE; page * PAGE_SIZE < start + length; page++) {
+                if (!this.verified((int) page, window, windowStart)) {
+                    throw new UncheckedIOException(new IOException("Corrupted users snapshot fraction page " + page
+                            + ": " + this.path));
+                }
+            }
+        }
+
+        private void verifyAll(FileChannel channel, long pagesOffset) throws IOException {
+            for (long position = 0; position < this.size; position += MAX_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, pagesOffset + position,
+                        Math.min(MAX_WINDOW, this.size - position));
+                for (long page = position / PAGE_SIZE; page * PAGE_SIZE < position + window.capacity(); page++) {
+                    if (!this.verified((int) page, window, position)) {
+                        throw new IOException("Corrupted users snapshot fraction page " + page + ": " + this.path);
+                    }
+                }
+            }
+        }
+
+        // Two threads may both check a page; they agree, and the bit is only ever set
+        private boolean verified(int page, ByteBuffer window, long windowStart) {
+            long bit = 1L << page;
+            if ((this.verified.get(page >>> 6) & bit) != 0) {
+                return true;
+            }
+            long pageStart = (long) page * PAGE_SIZE;
+            int pageLength = (int) Math.min(PAGE_SIZE, this.size - pageStart);
+            if (crc32c(window.slice((int) (pageStart - windowStart), pageLength)) != this.checksums[page]) {
+                return false;
+            }
+            this.verified.getAndAccumulate(page >>> 6, bit, (bits, added) -> bits | added);
+            return true;
+        }
+    }
+
+    // Never reads past the end of the directory, so a corrupted length fails before anything is allocated for it
+    private static final class Directory {
+        private final DataInputStream input;
+        private final Path path;
+        private long remaining;
+
+        private Directory(DataInputStream input, long size, Path path) {
+            this.input = input;
+            this.remaining = size;
+            this.path = path;
+        }
+
+        private void take(long bytes) throws IOException {
+            if (bytes < 0 || bytes > this.remaining) {
+                throw new IOException("Corrupted users snapshot directory: " + this.path);
+            }
+            this.remaining -= bytes;
+        }
+
+        private String readString() throws IOException {
+            int length = this.readInt();
+            if (length == -1) {
+                return null;
+            }
+            this.take(length);
+            return new String(this.input.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        private int readInt() throws IOException {
+            this.take(Integer.BYTES);
+            return this.input.readInt();
+        }
+
+        private long readLong() throws IOException {
+            this.take(Long.BYTES);
+            return this.input.readLong();
+        }
+    }
+
+    // Passes the fraction pages through, keeping the CRC32C of every PAGE_SIZE bytes of them
+    private static final class PageChecksums extends FilterOutputStream {
+        private final List<Integer> checksums = new ArrayList<>();
+        private final CRC32C page = new CRC32C();
+        private int written;
+
+        private PageChecksums(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            this.out.write(value);
+            this.page.update(value);
+            this.advance(1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            this.out.write(bytes, offset, length);
+            while (length > 0) {
+                int chunk = Math.min(length, PAGE_SIZE - this.written);
+                this.page.update(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                this.advance(chunk);
+            }
+        }
+
+        private void advance(int bytes) {
+            this.written += bytes;
+            if (this.written == PAGE_SIZE) {
+                this.checksums.add((int) this.page.getValue());
+                this.page.reset();
+                this.written = 0;
+            }
+        }
+
+        private List<Integer> finish() {
+            if (this.written > 0) {
+                this.checksums.add((int) this.page.getValue());
+            }
+            return this.checksums;
+        }
+    }
+
+    private record DirectoryEntry(String id, String name, String familyName, int fractionCount,
+                                  int properCount, int improperCount, long fractionIndex) {
+    }
+}
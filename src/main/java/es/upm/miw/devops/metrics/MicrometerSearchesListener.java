@@ -0,0 +1,55 @@
+package es.upm.miw.devops.metrics;
+
+import es.upm.miw.devops.code.Searches;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Meters are registered once per search. Latency percentiles come from the histogram buckets (histogram_quantile in
+// Prometheus): client-side percentiles would cost a synchronized time-window update on every search
+public class MicrometerSearchesListener implements Consumer<Searches.Measurement> {
+
+    private final MeterRegistry registry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public MicrometerSearchesListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void accept(Searches.Measurement measurement) {
+        Meters searchMeters = this.meters.computeIfAbsent(measurement.search(), this::register);
+        searchMeters.latency().record(measurement.elapsedNanos(), TimeUnit.NANOSECONDS);
+        searchMeters.usersScanned().record(measurement.usersScanned());
+        searchMeters.fractionsScanned().record(measurement.fractionsScanned());
+        searchMeters.resultSize().record(measurement.resultSize());
+    }
+
+    private Meters register(String search) {
+        return new Meters(
+                Timer.builder("searches.latency")
+                        .description("Time until the search result is complete")
+                        .tag("search", search)
+                        .publishPercentileHistogram()
+                        .register(this.registry),
+                this.summary("searches.users.scanned", "users", search),
+                this.summary("searches.fractions.scanned", "fractions", search),
+                this.summary("searches.result.size", "results", search));
+    }
+
+    private DistributionSummary summary(String name, String unit, String search) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tag("search", search)
+                .register(this.registry);
+    }
+
+    private record Meters(Timer latency, DistributionSummary usersScanned, DistributionSummary fractionsScanned,
+                          DistributionSummary resultSize) {
+    }
+}
@@ -0,0 +1,228 @@
+package es.upm.miw.devops.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import es.upm.miw.devops.code.Fraction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/*
+ * One operation per JSON value, one result per line, in the same order:
+ * {"operation":"add","operands":[{"numerator":1,"denominator":2},{"numerator":1,"denominator":3}]}
+ *   -> {"fraction":{"numerator":5,"denominator":6}}
+ * {"operation":"proper","operands":[{"numerator":1,"denominator":2}]} -> {"value":true}
+ * An operation that cannot be computed answers {"error":"..."} and the batch goes on; malformed JSON ends it.
+ */
+public class FractionBatch {
+
+    public enum Operation {
+        ADD(2), MULTIPLY(2), DIVIDE(2), EQUIVALENT(2), PROPER(1), IMPROPER(1);
+
+        private final int operands;
+
+        Operation(int operands) {
+            this.operands = operands;
+        }
+    }
+
+    private static final int FLUSH_INTERVAL = 1_024;
+    private static final int MAX_OPERANDS = 2;
+
+    private final JsonFactory jsonFactory;
+
+    public FractionBatch(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    // Results are flushed whenever the input has nothing more buffered, so an interactive client never waits on them
+    public long process(InputStream input, OutputStream output) throws IOException {
+        long operations = 0;
+        Fraction[] operands = new Fraction[MAX_OPERANDS];
+        try (JsonParser parser = this.jsonFactory.createParser(input);
+             JsonGenerator generator = this.jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            try {
+                while (parser.nextToken() != null) {
+                    this.process(parser, generator, operands);
+                    generator.writeRaw('\n');
+                    operations++;
+                    if (operations % FLUSH_INTERVAL == 0 || input.available() == 0) {
+                        generator.flush();
+                    }
+                }
+            } catch (JsonProcessingException exception) {
+                writeError(generator, "Malformed JSON at operation " + (operations + 1) + ": "
+                        + exception.getOriginalMessage());
+                generator.writeRaw('\n');
+            }
+        }
+        return operations;
+    }
+
+    private void process(JsonParser parser, JsonGenerator generator, Fraction[] operands) throws IOException {
+        OperationReader reader = new OperationReader(parser, operands);
+        reader.read();
+        if (reader.error != null) {
+            writeError(generator, reader.error);
+            return;
+        }
+        try {
+            switch (reader.operation) {
+                case ADD -> writeFraction(generator, operands[0].add(operands[1]));
+                case MULTIPLY -> writeFraction(generator, operands[0].multiply(operands[1]));
+                case DIVIDE -> writeFraction(generator, operands[0].divide(operands[1]));
+                case EQUIVALENT -> writeValue(generator, operands[0].isEquivalent(operands[1]));
+                case PROPER -> writeValue(generator, operands[0].isProper());
+                case IMPROPER -> writeValue(generator, operands[0].isImproper());
+            }
+        } catch (ArithmeticException exception) {
+            writeError(generator, exception.getMessage());
+        }
+    }
+
+    // Always reads the whole operation value, keeping the first problem found so the next operation starts cleanly
+    private static final class OperationReader {
+        private final JsonParser parser;
+        private final Fraction[] operands;
+        private Operation operation;
+        private int count = -1;
+        private String error;
+
+        OperationReader(JsonParser parser, Fraction[] operands) {
+            this.parser = parser;
+            this.operands = operands;
+        }
+
+        void read() throws IOException {
+            if (this.parser.currentToken() != JsonToken.START_OBJECT) {
+                this.invalid("operation object expected");
+                return;
+            }
+            while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = this.parser.currentName();
+                this.parser.nextToken();
+                if ("operation".equals(field)) {
+                    this.readOperation();
+                } else if ("operands".equals(field)) {
+                    this.readOperands();
+                } else {
+                    this.parser.skipChildren();
+                }
+            }
+            if (this.operation == null) {
+                this.error("missing operation");
+            } else if (this.count != this.operation.operands) {
+                this.error(this.operation.name().toLowerCase(Locale.ROOT) + " takes " + this.operation.operands
+                        + " operands");
+            }
+        }
+
+        private void readOperation() throws IOException {
+            String name = this.parser.currentToken() == JsonToken.VALUE_STRING ? this.parser.getText() : null;
+            if (name == null) {
+                this.invalid("operation must be a string");
+                return;
+            }
+            try {
+                this.operation = Operation.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                this.error("unknown operation: " + name);
+            }
+        }
+
+        private void readOperands() throws IOException {
+            if (this.parser.currentToken() != JsonToken.START_ARRAY) {
+                this.invalid("operands must be an array");
+                return;
+            }
+            this.count = 0;
+            while (this.parser.nextToken() != JsonToken.END_ARRAY) {
+                if (this.count < MAX_OPERANDS) {
+                    this.operands[this.count] = this.readFraction();
+                } else {
+                    this.parser.skipChildren();
+                }
+                this.count++;
+            }
+        }
+
+        // Null when not a valid fraction, whose error is then kept like any other of the operation
+        private Fraction readFraction() throws IOException {
+            if (this.parser.currentToken() != JsonToken.START_OBJECT) {
+                this.invalid("fraction object expected");
+                return null;
+            }
+            Integer numerator = null;
+            Integer denominator = null;
+            while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = this.parser.currentName();
+                this.parser.nextToken();
+                if ("numerator".equals(field)) {
+                    numerator = this.readInt(field);
+                } else if ("denominator".equals(field)) {
+                    denominator = this.readInt(field);
+                } else {
+                    this.parser.skipChildren();
+                }
+            }
+            if (numerator == null || denominator == null) {
+                this.error("fraction needs a numerator and a denominator");
+                return null;
+            }
+            try {
+                return new Fraction(numerator, denominator);
+            } catch (ArithmeticException exception) {
+                this.error(exception.getMessage());
+                return null;
+            }
+        }
+
+        private Integer readInt(String field) throws IOException {
+            if (this.parser.currentToken() != JsonToken.VALUE_NUMBER_INT
+                    || this.parser.getNumberType() != JsonParser.NumberType.INT) {
+                this.invalid(field + " must be a 32-bit integer");
+                return null;
+            }
+            return this.parser.getIntValue();
+        }
+
+        private void invalid(String message) throws IOException {
+            this.parser.skipChildren();
+            this.error(message);
+        }
+
+        private void error(String message) {
+            if (this.error == null) {
+                this.error = message;
+            }
+        }
+    }
+
+    private static void writeFraction(JsonGenerator generator, Fraction fraction) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("fraction");
+        generator.writeNumberField("numerator", fraction.getNumerator());
+        generator.writeNumberField("denominator", fraction.getDenominator());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeValue(JsonGenerator generator, boolean value) throws IOException {
+        generator.writeStartObject();
+        generator.writeBooleanField("value", value);
+        generator.writeEndObject();
+    }
+
+    private static void writeError(JsonGenerator generator, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,32 @@
+package es.upm.miw.devops.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping(FractionResource.FRACTIONS)
+public class FractionResource {
+
+    public static final String FRACTIONS = "/fractions";
+    public static final String BATCH = "/batch";
+
+    private final FractionBatch fractionBatch;
+
+    public FractionResource(ObjectMapper objectMapper) {
+        this.fractionBatch = new FractionBatch(objectMapper.getFactory());
+    }
+
+    // Reads operations from the request body while results go out, so a batch of any size runs in constant memory
+    @PostMapping(value = BATCH, consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void batch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        this.fractionBatch.process(request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,74 @@
+package es.upm.miw.devops.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.rest.dtos.UserFamilyNameDto;
+import es.upm.miw.devops.rest.dtos.UserIdDto;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/*
+ * Same searches as SearchResource as a Flux. Spring MVC requests one element at a time and only after the previous
+ * one was written, and Flux.fromStream pulls the users lazily, so a slow reader throttles the scan itself.
+ * Elements are chunks of NDJSON lines, so a flush is paid per chunk and not per user.
+ */
+@RestController
+@RequestMapping(ReactiveSearchResource.REACTIVE_SEARCHES)
+public class ReactiveSearchResource {
+
+    public static final String REACTIVE_SEARCHES = "/reactive/searches";
+    private static final int CHUNK_SIZE = 256;
+
+    private final Searches searches;
+    private final ObjectWriter writer;
+
+    public ReactiveSearchResource(Searches searches, ObjectMapper objectMapper) {
+        this.searches = searches;
+        this.writer = objectMapper.writer();
+    }
+
+    @GetMapping(value = SearchResource.USER_IDS_BY_PROPER_FRACTION, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> findUserIdBySomeProperFraction(@RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Long limit) {
+        long validLimit = SearchResource.validLimit(limit);
+        return this.ndjson(() -> this.searches.findUserBySomeProperFraction(after).limit(validLimit),
+                UserIdDto::of);
+    }
+
+    @GetMapping(value = SearchResource.USER_FAMILY_NAMES_BY_IMPROPER_FRACTION,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> findUserFamilyNameBySomeImproperFraction(@RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Long limit) {
+        long validLimit = SearchResource.validLimit(limit);
+        return this.ndjson(() -> this.searches.findUserBySomeImproperFraction(after).limit(validLimit),
+                UserFamilyNameDto::of);
+    }
+
+    // String elements are written as they are, so each chunk carries the line break of every line
+    private Flux<String> ndjson(Supplier<Stream<? extends User>> users, Function<User, ?> line) {
+        return Flux.fromStream(users)
+                .map(user -> this.json(line.apply(user)))
+                .buffer(CHUNK_SIZE)
+                .map(lines -> String.join("\n", lines) + "\n");
+    }
+
+    private String json(Object value) {
+        try {
+            return this.writer.writeValueAsString(value);
+        } catch (JsonProcessingException exception) {
+            throw Exceptions.propagate(exception);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package es.upm.miw.devops.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.rest.dtos.FractionDto;
+import es.upm.miw.devops.rest.exceptionshandler.BadRequestException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping(SearchResource.SEARCHES)
+public class SearchResource {
+
+    public static final String SEARCHES = "/searches";
+    public static final String FRACTION_ADDITION = "/fraction-addition/{id}";
+    public static final String FRACTION_SUBTRACTION = "/fraction-subtraction";
+    public static final String USER_IDS_BY_PROPER_FRACTION = "/user-ids/proper-fraction";
+    public static final String USER_FAMILY_NAMES_BY_IMPROPER_FRACTION = "/user-family-names/improper-fraction";
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final Searches searches;
+    private final ObjectMapper objectMapper;
+
+    public SearchResource(Searches searches, ObjectMapper objectMapper) {
+        this.searches = searches;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(FRACTION_ADDITION)
+    public ResponseEntity<FractionDto> findFractionAdditionByUserId(@PathVariable String id) {
+        return ResponseEntity.of(Optional.ofNullable(this.searches.findFractionAdditionByUserId(id)).map(FractionDto::of));
+    }
+
+    @GetMapping(FRACTION_SUBTRACTION)
+    public ResponseEntity<FractionDto> findFractionSubtractionByUserName(@RequestParam String name) {
+        return ResponseEntity.of(Optional.ofNullable(this.searches.findFractionSubtractionByUserName(name))
+                .map(FractionDto::of));
+    }
+
+    // One {"id":...} per line in id order; the last id is the "after" cursor of the next page
+    @GetMapping(value = USER_IDS_BY_PROPER_FRACTION, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findUserIdBySomeProperFraction(
+            @RequestParam(required = false) String after, @RequestParam(required = false) Long limit) {
+        long validLimit = validLimit(limit);
+        return ndjson(output -> this.writeNdjson(output, this.searches.findUserBySomeProperFraction(after), validLimit,
+                (generator, user) -> generator.writeStringField("id", user.getId())));
+    }
+
+    @GetMapping(value = USER_FAMILY_NAMES_BY_IMPROPER_FRACTION, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findUserFamilyNameBySomeImproperFraction(
+            @RequestParam(required = false) String after, @RequestParam(required = false) Long limit) {
+        long validLimit = validLimit(limit);
+        return ndjson(output -> this.writeNdjson(output, this.searches.findUserBySomeImproperFraction(after), validLimit,
+                (generator, user) -> {
+                    generator.writeStringField("id", user.getId());
+                    generator.writeStringField("familyName", user.getFamilyName());
+                }));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    static long validLimit(Long limit) {
+        if (limit == null) {
+            return Long.MAX_VALUE;
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be positive: " + limit);
+        }
+        return limit;
+    }
+
+    // The stream is consumed while writing, so neither the users nor the response are held in memory
+    private void writeNdjson(OutputStream output, Stream<User> users, long limit, FieldsWriter fieldsWriter)
+            throws IOException {
+        try (users; JsonGenerator generator = this.objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            Iterator<User> iterator = users.limit(limit).iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                generator.writeStartObject();
+                fieldsWriter.write(generator, iterator.next());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (written++ % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldsWriter {
+        void write(JsonGenerator generator, User user) throws IOException;
+    }
+}
@@ -0,0 +1,43 @@
+package es.upm.miw.devops.rest;
+
+import es.upm.miw.devops.code.FractionStatistics;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.rest.dtos.FractionStatisticsDto;
+import es.upm.miw.devops.rest.exceptionshandler.BadRequestException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(StatisticsResource.STATISTICS)
+public class StatisticsResource {
+
+    public static final String STATISTICS = "/statistics";
+    public static final String FRACTIONS = "/fractions";
+
+    private final UsersDatabase usersDatabase;
+
+    public StatisticsResource(UsersDatabase usersDatabase) {
+        this.usersDatabase = usersDatabase;
+    }
+
+    // Sketches, so the cost does not depend on how many users or fractions there are; infinite decimal values
+    // (n/0) are written as "Infinity" and "-Infinity"
+    @GetMapping(FRACTIONS)
+    public FractionStatisticsDto findFractionStatistics(
+            @RequestParam(defaultValue = "0,0.25,0.5,0.75,0.9,0.99,1") List<Double> ranks,
+            @RequestParam(defaultValue = "10") int limit) {
+        ranks.forEach(rank -> {
+            if (rank == null || !(rank >= 0 && rank <= 1)) {
+                throw new BadRequestException("rank out of [0, 1]: " + rank);
+            }
+        });
+        if (limit < 0 || limit > FractionStatistics.HEAVY_HITTERS) {
+            throw new BadRequestException("limit out of [0, " + FractionStatistics.HEAVY_HITTERS + "]: " + limit);
+        }
+        return FractionStatisticsDto.of(this.usersDatabase.statistics(), ranks, limit);
+    }
+}
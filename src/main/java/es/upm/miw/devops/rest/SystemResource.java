@@ -1,10 +1,25 @@
 package es.upm.miw.devops.rest;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/")
 public class SystemResource {
@@ -30,6 +45,8 @@ public class SystemResource {
             """;
     private static final int TEXT_MARGIN = 12;
     private static final int CHARACTER_WIDTH = 6;
+    private static final CacheControl BADGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+    private final Map<String, Badge> badges = new ConcurrentHashMap<>();
     @Value("${info.app.artifact}")
     private String artifact;
     @Value("${info.app.version}")
@@ -51,14 +68,81 @@ public class SystemResource {
     public String applicationInfo() {
         String appInfo = "{\"version\":\"" + this.artifact + "::" + this.version + "::" + this.build + "\"} <br> <br>";
         appInfo += "/version-badge <br><br>";
+        appInfo += "/searches/user-ids/proper-fraction?after=&limit= <br>";
+        appInfo += "/searches/user-family-names/improper-fraction?after=&limit= <br>";
+        appInfo += "/searches/fraction-addition/{id} <br> /searches/fraction-subtraction?name= <br><br>";
+        appInfo += "/statistics/fractions?ranks=&limit= <br><br>";
         appInfo += "/actuator/info <br> /actuator/health <br><br>";
         appInfo += "/swagger-ui.html  <br> /v3/api-docs <br>";
         return appInfo;
     }
 
+    // Computed once per (label, value); Spring MVC answers a matching If-None-Match with 304 from the ETag alone
     @GetMapping(value = VERSION_BADGE, produces = {"image/svg+xml"})
-    public byte[] generateBadge() {
-        return this.generateBadge("Render", "v" + version).getBytes();
+    public ResponseEntity<byte[]> generateBadge(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Badge badge = this.badges.computeIfAbsent("Render\u0000v" + this.version,
+                key -> Badge.of(this.generateBadge("Render", "v" + this.version)));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(BADGE_CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(badge.gzipEtag()).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(badge.gzip());
+        }
+        return response.eTag(badge.etag()).body(badge.svg());
+    }
+
+    // RFC 9110: gzip (or x-gzip) listed with a non-zero q, or else "*" with a non-zero q
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String[] parameter = parameters[i].split("=", 2);
+                if (parameter.length == 2 && "q".equalsIgnoreCase(parameter[0].trim())) {
+                    try {
+                        quality = Double.parseDouble(parameter[1].trim());
+                    } catch (NumberFormatException exception) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if ("*".equals(coding)) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    private record Badge(byte[] svg, String etag, byte[] gzip, String gzipEtag) {
+        static Badge of(String svg) {
+            byte[] bytes = svg.getBytes(StandardCharsets.UTF_8);
+            byte[] gzip = gzip(bytes);
+            return new Badge(bytes, etag(bytes), gzip, etag(gzip));
+        }
+
+        private static String etag(byte[] bytes) {
+            return "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+                gzip.write(bytes);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            return output.toByteArray();
+        }
     }
 
 }
@@ -0,0 +1,10 @@
+package es.upm.miw.devops.rest.dtos;
+
+import es.upm.miw.devops.code.Fraction;
+
+public record FractionDto(int numerator, int denominator) {
+
+    public static FractionDto of(Fraction fraction) {
+        return new FractionDto(fraction.getNumerator(), fraction.getDenominator());
+    }
+}
@@ -0,0 +1,36 @@
+package es.upm.miw.devops.rest.dtos;
+
+import es.upm.miw.devops.code.FractionStatistics;
+
+import java.util.List;
+
+// Every estimate next to its error bound; see FractionStatistics for how each one is kept
+public record FractionStatisticsDto(long fractions, long distinctFractions, double distinctFractionsRelativeError,
+                                    List<QuantileDto> quantiles, double quantileRankError,
+                                    List<HeavyHitterDto> heavyHitters, long heavyHitterOverestimate,
+                                    double heavyHitterConfidence) {
+
+    // A null value when no fraction has a decimal value yet
+    public record QuantileDto(double rank, Double value) {
+    }
+
+    public record HeavyHitterDto(String id, long fractions) {
+
+        public static HeavyHitterDto of(FractionStatistics.HeavyHitter heavyHitter) {
+            return new HeavyHitterDto(heavyHitter.id(), heavyHitter.fractions());
+        }
+    }
+
+    public static FractionStatisticsDto of(FractionStatistics statistics, List<Double> ranks, int limit) {
+        List<QuantileDto> quantiles = ranks.stream()
+                .map(rank -> {
+                    double value = statistics.quantile(rank);
+                    return new QuantileDto(rank, Double.isNaN(value) ? null : value);
+                })
+                .toList();
+        return new FractionStatisticsDto(statistics.fractions(), statistics.distinctFractions(),
+                statistics.distinctFractionsError(), quantiles, statistics.quantileRankError(),
+                statistics.heavyHitters(limit).stream().map(HeavyHitterDto::of).toList(),
+                statistics.fractionsOfError(), statistics.fractionsOfConfidence());
+    }
+}
@@ -0,0 +1,10 @@
+package es.upm.miw.devops.rest.dtos;
+
+import es.upm.miw.devops.code.User;
+
+public record UserFamilyNameDto(String id, String familyName) {
+
+    public static UserFamilyNameDto of(User user) {
+        return new UserFamilyNameDto(user.getId(), user.getFamilyName());
+    }
+}
@@ -0,0 +1,10 @@
+package es.upm.miw.devops.rest.dtos;
+
+import es.upm.miw.devops.code.User;
+
+public record UserIdDto(String id) {
+
+    public static UserIdDto of(User user) {
+        return new UserIdDto(user.getId());
+    }
+}
@@ -24,6 +24,15 @@ public class ApiExceptionHandler {
                 HttpStatus.NOT_FOUND.value());
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler({
+            BadRequestException.class
+    })
+    @ResponseBody
+    public ErrorMessage badRequest(Exception exception) {
+        return new ErrorMessage(exception, HttpStatus.BAD_REQUEST.value());
+    }
+
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler({
             Exception.class
@@ -0,0 +1,11 @@
+package es.upm.miw.devops.rest.exceptionshandler;
+
+// A request parameter out of its range; any other exception stays an internal error
+public class BadRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
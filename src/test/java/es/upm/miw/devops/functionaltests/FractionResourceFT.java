@@ -0,0 +1,105 @@
+package es.upm.miw.devops.functionaltests;
+
+import es.upm.miw.devops.rest.FractionResource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class FractionResourceFT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testBatch() {
+        webTestClient.post()
+                .uri(FractionResource.FRACTIONS + FractionResource.BATCH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("""
+                        {"operation":"add","operands":[{"numerator":1,"denominator":2},{"numerator":1,"denominator":3}]}
+                        {"operation":"multiply","operands":[{"numerator":2,"denominator":3},{"numerator":3,"denominator":4}]}
+                        {"operands":[{"numerator":1,"denominator":2},{"numerator":3,"denominator":4}],"operation":"divide"}
+                        {"operation":"equivalent","operands":[{"numerator":1,"denominator":2},{"numerator":2,"denominator":4}]}
+                        {"operation":"proper","operands":[{"numerator":1,"denominator":2}]}
+                        {"operation":"improper","operands":[{"numerator":1,"denominator":2}],"comment":{"ignored":[1]}}
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"fraction":{"numerator":5,"denominator":6}}
+                        {"fraction":{"numerator":1,"denominator":2}}
+                        {"fraction":{"numerator":2,"denominator":3}}
+                        {"value":true}
+                        {"value":true}
+                        {"value":false}
+                        """);
+    }
+
+    @Test
+    void testBatch_errorsAreReportedPerOperation() {
+        webTestClient.post()
+                .uri(FractionResource.FRACTIONS + FractionResource.BATCH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("""
+                        {"operation":"power","operands":[{"numerator":1,"denominator":2}]}
+                        {"operation":"add","operands":[{"numerator":1,"denominator":2}]}
+                        {"operation":"add","operands":[{"numerator":"1","denominator":2},{"numerator":1,"denominator":2}]}
+                        {"operation":"multiply","operands":[{"numerator":2147483647,"denominator":1},{"numerator":2,"denominator":1}]}
+                        {"operation":"add","operands":[{"numerator":-2147483648,"denominator":-1},{"numerator":1,"denominator":2}]}
+                        {"operation":"add","operands":[{"numerator":1},{"numerator":1,"denominator":2}]}
+                        {"operation":"proper","operands":[{"numerator":1,"denominator":2}]}
+                        {"operation":
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> {
+                    String[] lines = body.split("\n");
+                    assertThat(lines).hasSize(8);
+                    assertThat(lines[0]).isEqualTo("{\"error\":\"unknown operation: power\"}");
+                    assertThat(lines[1]).isEqualTo("{\"error\":\"add takes 2 operands\"}");
+                    assertThat(lines[2]).isEqualTo("{\"error\":\"numerator must be a 32-bit integer\"}");
+                    assertThat(lines[3]).startsWith("{\"error\":");
+                    assertThat(lines[4]).startsWith("{\"error\":");
+                    assertThat(lines[5]).isEqualTo("{\"error\":\"fraction needs a numerator and a denominator\"}");
+                    assertThat(lines[6]).isEqualTo("{\"value\":true}");
+                    assertThat(lines[7]).startsWith("{\"error\":\"Malformed JSON at operation 8");
+                });
+    }
+
+    @Test
+    void testBatch_large() {
+        StringBuilder operations = new StringBuilder();
+        for (int i = 1; i <= 50_000; i++) {
+            operations.append("{\"operation\":\"add\",\"operands\":[{\"numerator\":1,\"denominator\":")
+                    .append(i).append("},{\"numerator\":-1,\"denominator\":").append(i).append("}]}\n");
+        }
+        Map<String, Long> results = webTestClient.mutate().responseTimeout(Duration.ofMinutes(1)).build().post()
+                .uri(FractionResource.FRACTIONS + FractionResource.BATCH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(operations.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .block();
+        assertThat(results).containsExactly(Map.entry("{\"fraction\":{\"numerator\":0,\"denominator\":1}}", 50_000L));
+    }
+}
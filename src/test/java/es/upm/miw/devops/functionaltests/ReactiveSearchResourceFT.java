@@ -0,0 +1,73 @@
+package es.upm.miw.devops.functionaltests;
+
+import es.upm.miw.devops.rest.ReactiveSearchResource;
+import es.upm.miw.devops.rest.SearchResource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveSearchResourceFT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testFindUserIdBySomeProperFraction() {
+        webTestClient.get()
+                .uri(ReactiveSearchResource.REACTIVE_SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"id":"1"}
+                        {"id":"2"}
+                        {"id":"3"}
+                        {"id":"5"}
+                        """);
+    }
+
+    @Test
+    void testFindUserIdBySomeProperFraction_keysetPages() {
+        webTestClient.get()
+                .uri(ReactiveSearchResource.REACTIVE_SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION
+                        + "?after=2&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":\"3\"}\n");
+        webTestClient.get()
+                .uri(ReactiveSearchResource.REACTIVE_SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION + "?after=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).isNullOrEmpty());
+        webTestClient.get()
+                .uri(ReactiveSearchResource.REACTIVE_SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testFindUserFamilyNameBySomeImproperFraction() {
+        webTestClient.get()
+                .uri(ReactiveSearchResource.REACTIVE_SEARCHES + SearchResource.USER_FAMILY_NAMES_BY_IMPROPER_FRACTION
+                        + "?after=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"id":"2","familyName":"Blanco"}
+                        {"id":"6","familyName":"Torres"}
+                        """);
+    }
+}
@@ -0,0 +1,125 @@
+package es.upm.miw.devops.functionaltests;
+
+import es.upm.miw.devops.rest.SearchResource;
+import es.upm.miw.devops.rest.dtos.FractionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class SearchResourceFT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testFindUserIdBySomeProperFraction() {
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"id":"1"}
+                        {"id":"2"}
+                        {"id":"3"}
+                        {"id":"5"}
+                        """);
+    }
+
+    @Test
+    void testFindUserIdBySomeProperFraction_keysetPages() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(SearchResource.SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION)
+                        .queryParam("after", "2").queryParam("limit", 1).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":\"3\"}\n");
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION + "?after=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).isNullOrEmpty());
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testFindUserFamilyNameBySomeImproperFraction() {
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.USER_FAMILY_NAMES_BY_IMPROPER_FRACTION + "?after=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"id":"2","familyName":"Blanco"}
+                        {"id":"6","familyName":"Torres"}
+                        """);
+    }
+
+    @Test
+    void testFractionAdditionAndSubtraction() {
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.FRACTION_ADDITION, "4")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FractionDto.class)
+                .isEqualTo(new FractionDto(2, 1));
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.FRACTION_SUBTRACTION + "?name=Ana")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FractionDto.class)
+                .isEqualTo(new FractionDto(11, 30));
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.FRACTION_ADDITION, "unknown")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testCacheMetrics() {
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.FRACTION_ADDITION, "1")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/actuator/metrics/cache.gets?tag=cache:searches.fraction-addition")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("\"hit\"", "\"miss\""));
+    }
+
+    @Test
+    void testSearchMetrics_prometheus() {
+        webTestClient.get()
+                .uri(SearchResource.SEARCHES + SearchResource.USER_IDS_BY_PROPER_FRACTION)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains(
+                        "searches_latency_seconds_bucket{search=\"userIdBySomeProperFraction\"",
+                        "searches_latency_seconds_count{search=\"userIdBySomeProperFraction\"}",
+                        "searches_users_scanned_users_sum{search=\"userIdBySomeProperFraction\"}"));
+    }
+}
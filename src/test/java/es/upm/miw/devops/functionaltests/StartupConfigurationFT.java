@@ -0,0 +1,48 @@
+package es.upm.miw.devops.functionaltests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class StartupConfigurationFT {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testSpringdocBeansAreLazyAndStillServed() {
+        List<BeanDefinition> springdoc = Arrays.stream(this.beanFactory.getBeanDefinitionNames())
+                .map(this.beanFactory::getBeanDefinition)
+                .filter(definition -> {
+                    String factory = definition.getFactoryBeanName();
+                    String declaringClass = factory != null && this.beanFactory.containsBeanDefinition(factory)
+                            ? this.beanFactory.getBeanDefinition(factory).getBeanClassName()
+                            : definition.getBeanClassName();
+                    return declaringClass != null && declaringClass.startsWith("org.springdoc.");
+                })
+                .toList();
+        assertThat(springdoc).isNotEmpty().allMatch(BeanDefinition::isLazyInit);
+        webTestClient.get()
+                .uri("/v3/api-docs")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.paths['/statistics/fractions']").exists();
+    }
+}
@@ -0,0 +1,58 @@
+package es.upm.miw.devops.functionaltests;
+
+import es.upm.miw.devops.rest.StatisticsResource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class StatisticsResourceFT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testFindFractionStatistics() {
+        webTestClient.get()
+                .uri(StatisticsResource.STATISTICS + StatisticsResource.FRACTIONS + "?ranks=0,0.5&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.fractions").isEqualTo(19)
+                .jsonPath("$.distinctFractions").isEqualTo(10)
+                .jsonPath("$.distinctFractionsRelativeError").isNumber()
+                .jsonPath("$.quantiles[0].rank").isEqualTo(0.0)
+                .jsonPath("$.quantiles[0].value").isEqualTo(-0.5)
+                .jsonPath("$.quantiles[1].value").isEqualTo(0.5)
+                .jsonPath("$.quantileRankError").isNumber()
+                .jsonPath("$.heavyHitters.length()").isEqualTo(2)
+                .jsonPath("$.heavyHitters[0].id").isEqualTo("2")
+                .jsonPath("$.heavyHitters[0].fractions").isEqualTo(4)
+                .jsonPath("$.heavyHitterOverestimate").isNumber();
+    }
+
+    @Test
+    void testFindFractionStatistics_defaultsAndBadRequests() {
+        webTestClient.get()
+                .uri(StatisticsResource.STATISTICS + StatisticsResource.FRACTIONS)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.quantiles.length()").isEqualTo(7)
+                .jsonPath("$.quantiles[6].value").isEqualTo("Infinity")
+                .jsonPath("$.heavyHitters.length()").isEqualTo(6);
+        webTestClient.get()
+                .uri(StatisticsResource.STATISTICS + StatisticsResource.FRACTIONS + "?ranks=1.5")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri(StatisticsResource.STATISTICS + StatisticsResource.FRACTIONS + "?limit=65")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
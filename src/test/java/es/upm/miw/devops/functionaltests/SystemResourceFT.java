@@ -8,11 +8,23 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -24,6 +36,9 @@ class SystemResourceFT {
     @Autowired
     private WebTestClient webTestClient;
 
+    @LocalServerPort
+    private int port;
+
     @Test
     void testReadBadge() {
         webTestClient.get()
@@ -36,6 +51,57 @@ class SystemResourceFT {
                         .startsWith("<svg"));
     }
 
+    @Test
+    void testReadBadge_conditionalGet() {
+        String etag = webTestClient.get()
+                .uri(SystemResource.VERSION_BADGE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
+                .expectHeader().valueEquals("Vary", "Accept-Encoding")
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        webTestClient.get()
+                .uri(SystemResource.VERSION_BADGE)
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    // Plain JDK client: the reactive test client decompresses the body and drops Content-Encoding
+    @Test
+    void testReadBadge_gzip() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + SystemResource.VERSION_BADGE))
+                        .header("Accept-Encoding", "gzip, deflate").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gunzip(response.body())).startsWith("<svg");
+    }
+
+    @Test
+    void testReadBadge_gzipRefused() throws IOException, InterruptedException {
+        for (String acceptEncoding : List.of("gzip;q=0, deflate", "x-gzip-none", "*;q=0", "br, *;q=0.5, gzip;q=0")) {
+            HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + port + SystemResource.VERSION_BADGE))
+                            .header("Accept-Encoding", acceptEncoding).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.headers().firstValue("Content-Encoding")).as(acceptEncoding).isEmpty();
+            assertThat(new String(response.body(), StandardCharsets.UTF_8)).as(acceptEncoding).startsWith("<svg");
+        }
+    }
+
+    private static String gunzip(byte[] bytes) {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
     @Test
     void testReadInfo() {
         webTestClient.get()
@@ -0,0 +1,101 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.AdaptiveFraction;
+import es.upm.miw.devops.code.Fraction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveFractionTest {
+
+    @Test
+    void testOfReducesToLowestTerms() {
+        AdaptiveFraction f = AdaptiveFraction.of(6, -8);
+        assertFalse(f.isBig());
+        assertEquals(BigInteger.valueOf(-3), f.getNumerator());
+        assertEquals(BigInteger.valueOf(4), f.getDenominator());
+    }
+
+    @Test
+    void testOfFraction() {
+        assertEquals(AdaptiveFraction.of(1, 2), AdaptiveFraction.of(new Fraction(2, 4)));
+    }
+
+    @Test
+    void testAddStaysOnLongWhileItFits() {
+        AdaptiveFraction result = AdaptiveFraction.of(1, 2).add(AdaptiveFraction.of(1, 3));
+        assertFalse(result.isBig());
+        assertEquals(AdaptiveFraction.of(5, 6), result);
+    }
+
+    @Test
+    void testAddPromotesOnOverflow() {
+        AdaptiveFraction max = AdaptiveFraction.of(Long.MAX_VALUE, 1);
+        AdaptiveFraction result = max.add(max);
+        assertTrue(result.isBig());
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1), result.getNumerator());
+        assertEquals(BigInteger.ONE, result.getDenominator());
+    }
+
+    @Test
+    void testSubtractDemotesAfterReduction() {
+        AdaptiveFraction max = AdaptiveFraction.of(Long.MAX_VALUE, 1);
+        AdaptiveFraction result = max.add(max).subtract(max);
+        assertFalse(result.isBig());
+        assertEquals(max, result);
+    }
+
+    @Test
+    void testNegateAtTheLongBoundary() {
+        AdaptiveFraction min = AdaptiveFraction.of(Long.MIN_VALUE, 3);
+        AdaptiveFraction negated = min.negate();
+        assertTrue(negated.isBig());
+        assertEquals(BigInteger.ONE.shiftLeft(63), negated.getNumerator());
+        AdaptiveFraction back = negated.negate();
+        assertFalse(back.isBig());
+        assertEquals(min, back);
+        assertEquals(min.hashCode(), back.hashCode());
+    }
+
+    @Test
+    void testMultiplyAndDividePromoteAndDemote() {
+        AdaptiveFraction big = AdaptiveFraction.of(Long.MAX_VALUE, 3);
+        AdaptiveFraction square = big.multiply(big);
+        assertTrue(square.isBig());
+        AdaptiveFraction back = square.divide(big);
+        assertFalse(back.isBig());
+        assertEquals(big, back);
+    }
+
+    @Test
+    void testNonFinite() {
+        AdaptiveFraction infinity = AdaptiveFraction.of(5, 0);
+        assertEquals(AdaptiveFraction.of(1, 0), infinity);
+        assertEquals(infinity, infinity.add(AdaptiveFraction.of(1, 2)));
+        assertEquals(AdaptiveFraction.of(0, 0), infinity.subtract(infinity));
+        assertEquals(AdaptiveFraction.of(0, 0), AdaptiveFraction.of(0, 0).add(AdaptiveFraction.ZERO));
+        assertTrue(Double.isInfinite(infinity.decimal()));
+    }
+
+    @Test
+    void testDecimal() {
+        assertEquals(0.25, AdaptiveFraction.of(1, 4).decimal(), 1e-12);
+        AdaptiveFraction big = AdaptiveFraction.of(Long.MAX_VALUE, 1).multiply(AdaptiveFraction.of(4, Long.MAX_VALUE - 2));
+        assertEquals(4.0, big.decimal(), 1e-12);
+    }
+
+    @Test
+    void testToFraction() {
+        assertEquals(new Fraction(5, 6), AdaptiveFraction.of(10, 12).toFraction());
+        assertThrows(ArithmeticException.class, () -> AdaptiveFraction.of(Long.MAX_VALUE, 1).toFraction());
+        AdaptiveFraction max = AdaptiveFraction.of(Long.MAX_VALUE, 1);
+        assertThrows(ArithmeticException.class, () -> max.add(max).toFraction());
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("AdaptiveFraction{numerator=7, denominator=3}", AdaptiveFraction.of(7, 3).toString());
+    }
+}
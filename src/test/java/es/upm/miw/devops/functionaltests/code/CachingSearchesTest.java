@@ -0,0 +1,86 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.CachingSearches;
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingSearchesTest {
+
+    private final UsersDatabase usersDatabase = new UsersDatabase();
+    private final CachingSearches searches = new CachingSearches(this.usersDatabase, 100, Duration.ofMinutes(10));
+
+    @Test
+    void testRepeatedLookups_areServedFromCache() {
+        assertEquals(new Fraction(2, 1), this.searches.findFractionAdditionByUserId("4"));
+        assertEquals(new Fraction(2, 1), this.searches.findFractionAdditionByUserId("4"));
+        assertNull(this.searches.findFractionAdditionByUserId("999"));
+        assertNull(this.searches.findFractionAdditionByUserId("999"));
+        assertEquals(2, this.searches.getFractionAdditionCache().stats().hitCount());
+        assertEquals(2, this.searches.getFractionAdditionCache().stats().missCount());
+
+        assertEquals(new Fraction(11, 30), this.searches.findFractionSubtractionByUserName("Ana"));
+        assertEquals(new Fraction(11, 30), this.searches.parallel().findFractionSubtractionByUserName("Ana"));
+        assertEquals(1, this.searches.getFractionSubtractionCache().stats().hitCount());
+    }
+
+    @Test
+    void testMutations_invalidateOnlyAffectedEntries() {
+        this.searches.findFractionAdditionByUserId("2");
+        this.searches.findFractionAdditionByUserId("4");
+        this.searches.findFractionSubtractionByUserName("Ana");
+        this.searches.findFractionSubtractionByUserName("Paula");
+
+        this.usersDatabase.addFraction("2", new Fraction(1, 2));
+        assertNull(this.searches.getFractionAdditionCache().getIfPresent("2"));
+        assertNull(this.searches.getFractionSubtractionCache().getIfPresent("Ana"));
+        assertNotNull(this.searches.getFractionAdditionCache().getIfPresent("4"));
+        assertNotNull(this.searches.getFractionSubtractionCache().getIfPresent("Paula"));
+        assertEquals(new Fraction(-2, 15), this.searches.findFractionSubtractionByUserName("Ana"));
+    }
+
+    @Test
+    void testRenameAndDelete_invalidateOldAndNewNames() {
+        assertEquals(new Fraction(11, 30), this.searches.findFractionSubtractionByUserName("Ana"));
+        assertNull(this.searches.findFractionSubtractionByUserName("Eva"));
+        User ana = this.usersDatabase.findById("2").orElseThrow();
+        this.usersDatabase.save(new User("2", "Eva", ana.getFamilyName(), ana.getFractions()));
+        assertNull(this.searches.findFractionSubtractionByUserName("Ana"));
+        assertEquals(new Fraction(11, 30), this.searches.findFractionSubtractionByUserName("Eva"));
+
+        assertEquals(new Fraction(2, 1), this.searches.findFractionAdditionByUserId("4"));
+        this.usersDatabase.deleteById("4");
+        assertNull(this.searches.findFractionAdditionByUserId("4"));
+    }
+
+    @Test
+    void testInPlaceRenameAndAppend_invalidateOnSave() {
+        assertEquals(new Fraction(11, 30), this.searches.findFractionSubtractionByUserName("Ana"));
+        assertEquals(new Fraction(2, 1), this.searches.findFractionAdditionByUserId("4"));
+        User ana = this.usersDatabase.findById("2").orElseThrow();
+        ana.setName("Eva");
+        this.usersDatabase.save(ana);
+        assertNull(this.searches.findFractionSubtractionByUserName("Ana"));
+
+        User paula = this.usersDatabase.findById("4").orElseThrow();
+        paula.addFraction(new Fraction(3, 2));
+        this.usersDatabase.save(paula);
+        assertEquals(new Fraction(7, 2), this.searches.findFractionAdditionByUserId("4"));
+    }
+
+    @Test
+    void testScans_areNotCached() {
+        Searches parallel = this.searches.parallel();
+        assertInstanceOf(CachingSearches.class, parallel);
+        assertSame(parallel, parallel.parallel());
+        this.usersDatabase.save(new User("7", "Eva", "Ruiz", List.of(new Fraction(1, 3))));
+        assertEquals(List.of("1", "2", "3", "5", "7"), this.searches.findUserIdBySomeProperFraction().toList());
+    }
+}
@@ -0,0 +1,97 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.AdaptiveFraction;
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.FractionAccumulator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FractionAccumulatorTest {
+
+    @Test
+    void testEmpty() {
+        FractionAccumulator accumulator = new FractionAccumulator();
+        assertTrue(accumulator.isEmpty());
+        assertEquals(AdaptiveFraction.ZERO, accumulator.toAdaptiveFraction());
+    }
+
+    @Test
+    void testAddAndSubtract() {
+        FractionAccumulator accumulator = new FractionAccumulator()
+                .add(new Fraction(1, 2))
+                .add(new Fraction(1, 3))
+                .subtract(new Fraction(1, 6));
+        assertFalse(accumulator.isEmpty());
+        assertEquals(new Fraction(2, 3), accumulator.toFraction());
+    }
+
+    @Test
+    void testMatchesFractionReduction() {
+        Random random = new Random(7);
+        FractionAccumulator accumulator = new FractionAccumulator();
+        AdaptiveFraction expected = AdaptiveFraction.ZERO;
+        for (int i = 0; i < 10_000; i++) {
+            Fraction fraction = new Fraction(random.nextInt(-50, 51), random.nextInt(1, 30));
+            accumulator.add(fraction);
+            expected = expected.add(AdaptiveFraction.of(fraction));
+        }
+        assertEquals(expected, accumulator.toAdaptiveFraction());
+    }
+
+    @Test
+    void testPromotesAndDemotes() {
+        FractionAccumulator accumulator = new FractionAccumulator();
+        Fraction max = new Fraction(Integer.MAX_VALUE, 1);
+        Fraction tiny = new Fraction(1, Integer.MAX_VALUE);
+        Fraction otherTiny = new Fraction(1, Integer.MAX_VALUE - 1);
+        for (int i = 0; i < 4; i++) {
+            accumulator.add(max).add(tiny).add(otherTiny);
+        }
+        assertTrue(accumulator.toAdaptiveFraction().isBig());
+        for (int i = 0; i < 4; i++) {
+            accumulator.subtract(tiny).subtract(otherTiny);
+        }
+        assertFalse(accumulator.toAdaptiveFraction().isBig());
+        assertEquals(AdaptiveFraction.of(4L * Integer.MAX_VALUE, 1), accumulator.toAdaptiveFraction());
+    }
+
+    @Test
+    void testNonFinite() {
+        FractionAccumulator accumulator = new FractionAccumulator()
+                .add(new Fraction(1, 2))
+                .add(new Fraction(1, 0))
+                .add(new Fraction(3, 4));
+        assertEquals(new Fraction(1, 0), accumulator.toFraction());
+        accumulator.subtract(new Fraction(1, 0));
+        assertEquals(new Fraction(0, 0), accumulator.toFraction());
+    }
+
+    @Test
+    void testCombine() {
+        FractionAccumulator left = new FractionAccumulator().add(new Fraction(1, 2));
+        FractionAccumulator right = new FractionAccumulator().add(new Fraction(1, 4)).subtract(new Fraction(1, 8));
+        assertEquals(new Fraction(5, 8), left.combine(right).toFraction());
+        assertFalse(left.isEmpty());
+        assertTrue(new FractionAccumulator().combine(new FractionAccumulator()).isEmpty());
+    }
+
+    @Test
+    void testPairwiseSum() {
+        List<Fraction> fractions = new ArrayList<>();
+        FractionAccumulator accumulator = new FractionAccumulator();
+        for (int i = 1; i <= 5_000; i++) {
+            Fraction fraction = new Fraction(i % 7 - 3, i % 11 + 1);
+            fractions.add(fraction);
+            accumulator.add(fraction);
+        }
+        assertEquals(accumulator.toAdaptiveFraction(), FractionAccumulator.pairwiseSum(fractions));
+        assertEquals(AdaptiveFraction.of(5, 6),
+                FractionAccumulator.pairwiseSum(Arrays.asList(new Fraction(1, 2), null, new Fraction(1, 3))));
+    }
+}
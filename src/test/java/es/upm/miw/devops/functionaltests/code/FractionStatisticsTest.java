@@ -0,0 +1,131 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.FractionStatistics;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FractionStatisticsTest {
+
+    @Test
+    void testSampleUsers_smallEnoughToBeExact() {
+        FractionStatistics statistics = new UsersDatabase().statistics();
+        assertEquals(19, statistics.fractions());
+        assertEquals(10, statistics.distinctFractions());
+        assertEquals(-0.5, statistics.quantile(0));
+        assertEquals(0.5, statistics.quantile(0.5));
+        assertEquals(Double.POSITIVE_INFINITY, statistics.quantile(1));
+        assertEquals(List.of(new FractionStatistics.HeavyHitter("2", 4), new FractionStatistics.HeavyHitter("3", 4),
+                new FractionStatistics.HeavyHitter("1", 3)), statistics.heavyHitters(3));
+        assertEquals(0, statistics.fractionsOf("999"));
+        assertThrows(IllegalArgumentException.class, () -> statistics.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> statistics.heavyHitters(FractionStatistics.HEAVY_HITTERS + 1));
+    }
+
+    @Test
+    void testWrites_countOnlyTheFractionsEachSaveAdds() {
+        UsersDatabase database = new UsersDatabase();
+        FractionStatistics statistics = database.statistics();
+        database.addFraction("2", new Fraction(7, 3));
+        assertEquals(20, statistics.fractions());
+        assertEquals(11, statistics.distinctFractions());
+        assertEquals(new FractionStatistics.HeavyHitter("2", 5), statistics.heavyHitters(1).getFirst());
+        database.setFractions("5", List.of(new Fraction(1, 1), new Fraction(9, 1)));
+        assertEquals(22, statistics.fractions());
+        assertEquals(12, statistics.distinctFractions());
+        database.save(new User("5", "Antonio", "Blanco", List.of(new Fraction(1, 1), new Fraction(9, 1))));
+        assertEquals(24, statistics.fractions());
+        database.deleteById("2");
+        assertEquals(24, statistics.fractions());
+        assertEquals(5, statistics.fractionsOf("2"));
+        assertSame(statistics, database.statistics());
+    }
+
+    @Test
+    void testInPlaceAppendsSavedAgain_areCounted() {
+        UsersDatabase database = new UsersDatabase();
+        FractionStatistics statistics = database.statistics();
+        User user = database.findById("4").orElseThrow();
+        user.addFraction(new Fraction(7, 3));
+        user.addFraction(new Fraction(8, 3));
+        database.save(user);
+        assertEquals(21, statistics.fractions());
+        assertEquals(4, statistics.fractionsOf("4"));
+        database.save(user);
+        assertEquals(21, statistics.fractions());
+    }
+
+    @Test
+    void testIdsSharingHashCode_countedApart() {
+        List<Fraction> fractions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fractions.add(new Fraction(i, 1));
+        }
+        UsersDatabase database = new UsersDatabase(List.of(new User("Aa", "Name", "Family", fractions),
+                new User("BB", "Name", "Family", List.of())));
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertEquals(100, database.statistics().fractionsOf("Aa"));
+        assertEquals(0, database.statistics().fractionsOf("BB"));
+    }
+
+    @Test
+    void testManyUsers_estimatesWithinTheirErrorBounds() {
+        Random random = new Random(11);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            List<Fraction> fractions = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                fractions.add(new Fraction(random.nextInt(-500, 501), random.nextInt(1, 501)));
+            }
+            users.add(new User(String.valueOf(i), "Name", "Family", fractions));
+        }
+        List<Fraction> heavy = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            heavy.add(new Fraction(1, 2));
+        }
+        users.add(new User("heavy", "Name", "Family", heavy));
+        UsersDatabase database = new UsersDatabase(users);
+        FractionStatistics statistics = database.statistics();
+
+        List<Fraction> all = users.stream().flatMap(user -> user.getFractions().stream()).toList();
+        assertEquals(all.size(), statistics.fractions());
+        long distinct = new HashSet<>(all).size();
+        assertEquals(distinct, statistics.distinctFractions(), 4 * statistics.distinctFractionsError() * distinct);
+
+        double[] decimals = all.stream().mapToDouble(Fraction::decimal).sorted().toArray();
+        for (double rank : new double[]{0.01, 0.25, 0.5, 0.75, 0.99}) {
+            double value = statistics.quantile(rank);
+            double below = lowerBound(decimals, value) / (double) decimals.length;
+            double atMost = lowerBound(decimals, Math.nextUp(value)) / (double) decimals.length;
+            assertTrue(rank >= below - statistics.quantileRankError() && rank <= atMost + statistics.quantileRankError(),
+                    () -> "rank " + rank + " answered with " + value + " of ranks [" + below + ", " + atMost + "]");
+        }
+
+        FractionStatistics.HeavyHitter top = statistics.heavyHitters(1).getFirst();
+        assertEquals("heavy", top.id());
+        assertTrue(top.fractions() >= 3_000 && top.fractions() <= 3_000 + statistics.fractionsOfError());
+        Set<String> ids = new HashSet<>();
+        statistics.heavyHitters(FractionStatistics.HEAVY_HITTERS).forEach(hitter -> assertTrue(ids.add(hitter.id())));
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+}
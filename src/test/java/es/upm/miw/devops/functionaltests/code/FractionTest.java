@@ -3,6 +3,9 @@ package es.upm.miw.devops.functionaltests.code;
 import es.upm.miw.devops.code.Fraction;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FractionTest {
@@ -22,12 +25,25 @@ class FractionTest {
     }
 
     @Test
-    void testSetters() {
-        Fraction f = new Fraction(1, 2);
-        f.setNumerator(7);
-        f.setDenominator(9);
-        assertEquals(7, f.getNumerator());
-        assertEquals(9, f.getDenominator());
+    void testConstructorReducesToLowestTerms() {
+        Fraction f = new Fraction(6, -8);
+        assertEquals(-3, f.getNumerator());
+        assertEquals(4, f.getDenominator());
+        assertEquals(0, new Fraction(0, -5).getNumerator());
+        assertEquals(1, new Fraction(0, -5).getDenominator());
+    }
+
+    @Test
+    void testConstructorNonFinite() {
+        assertEquals(new Fraction(1, 0), new Fraction(7, 0));
+        assertEquals(new Fraction(-1, 0), new Fraction(-7, 0));
+        assertEquals(0, new Fraction(0, 0).getNumerator());
+        assertEquals(0, new Fraction(0, 0).getDenominator());
+    }
+
+    @Test
+    void testConstructorOverflowThrows() {
+        assertThrows(ArithmeticException.class, () -> new Fraction(Integer.MIN_VALUE, -1));
     }
 
     @Test
@@ -100,9 +116,9 @@ class FractionTest {
         Fraction f1 = new Fraction(2, 3);
         Fraction f2 = new Fraction(3, 4);
 
-        Fraction result = f1.multiply(f2); // 2/3 * 3/4 = 6/12
-        assertEquals(6, result.getNumerator());
-        assertEquals(12, result.getDenominator());
+        Fraction result = f1.multiply(f2); // 2/3 * 3/4 = 6/12 = 1/2
+        assertEquals(1, result.getNumerator());
+        assertEquals(2, result.getDenominator());
     }
 
     @Test
@@ -115,6 +131,79 @@ class FractionTest {
         assertEquals(9, result.getDenominator());
     }
 
+    @Test
+    void testAddUsesLeastCommonDenominator() {
+        Fraction result = new Fraction(1, 6).add(new Fraction(1, 6)); // 2/6 = 1/3
+        assertEquals(new Fraction(1, 3), result);
+    }
+
+    @Test
+    void testAddLongReductionStaysInLowestTerms() {
+        Fraction result = new Fraction(0, 1);
+        for (int i = 0; i < 10_000; i++) {
+            result = result.add(new Fraction(1, i % 12 + 1));
+        }
+        assertTrue(result.getDenominator() <= 27720); // lcm(1..12)
+    }
+
+    @Test
+    void testAddOverflowThrows() {
+        Fraction big = new Fraction(Integer.MAX_VALUE, 1);
+        assertThrows(ArithmeticException.class, () -> big.add(big));
+        Fraction small = new Fraction(1, 2_147_483_629);
+        assertThrows(ArithmeticException.class, () -> small.add(new Fraction(1, 2_147_483_587)));
+    }
+
+    @Test
+    void testAddNonFinite() {
+        Fraction infinity = new Fraction(1, 0);
+        Fraction nan = new Fraction(0, 0);
+        assertEquals(infinity, infinity.add(new Fraction(3, 4)));
+        assertEquals(infinity, new Fraction(3, 4).add(infinity));
+        assertEquals(infinity, infinity.add(infinity));
+        assertEquals(nan, infinity.add(infinity.negate()));
+        assertEquals(nan, nan.add(new Fraction(3, 4)));
+    }
+
+    @Test
+    void testNegate() {
+        assertEquals(new Fraction(-2, 3), new Fraction(2, 3).negate());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        Fraction f1 = new Fraction(2, 4);
+        Fraction f2 = new Fraction(-1, -2);
+        assertEquals(f1, f2);
+        assertEquals(f1.hashCode(), f2.hashCode());
+        assertNotEquals(f1, new Fraction(1, 3));
+        assertNotEquals(null, f1);
+    }
+
+    @Test
+    void testCompareTo() {
+        assertTrue(new Fraction(1, 3).compareTo(new Fraction(1, 2)) < 0);
+        assertTrue(new Fraction(-1, 2).compareTo(new Fraction(-2, 3)) > 0);
+        assertEquals(0, new Fraction(2, 4).compareTo(new Fraction(-1, -2)));
+        Fraction larger = new Fraction(Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        Fraction smaller = new Fraction(Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1);
+        assertEquals(larger.decimal(), smaller.decimal());
+        assertTrue(larger.compareTo(smaller) > 0);
+        assertTrue(smaller.compareTo(larger) < 0);
+    }
+
+    @Test
+    void testCompareTo_nonFinite() {
+        Fraction finite = new Fraction(Integer.MAX_VALUE, 1);
+        Fraction infinity = new Fraction(1, 0);
+        Fraction negativeInfinity = new Fraction(-1, 0);
+        Fraction nan = new Fraction(0, 0);
+        assertEquals(List.of(negativeInfinity, new Fraction(0, 5), finite, infinity, nan),
+                Stream.of(nan, infinity, finite, negativeInfinity, new Fraction(0, 5)).sorted().toList());
+        assertEquals(0, infinity.compareTo(new Fraction(7, 0)));
+        assertEquals(0, nan.compareTo(new Fraction(0, 0)));
+    }
+
     @Test
     void testToString() {
         Fraction f = new Fraction(7, 3);
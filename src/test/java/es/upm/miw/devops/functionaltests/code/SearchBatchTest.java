@@ -0,0 +1,104 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.SearchBatch;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchBatchTest {
+
+    @Test
+    void testBatch_sameResultsAsSeparateSearches() {
+        Searches searches = new Searches();
+        SearchBatch batch = searches.batch();
+        SearchBatch.Query<List<String>> ids = batch.userIdsBySomeProperFraction();
+        SearchBatch.Query<List<String>> familyNames = batch.userFamilyNamesBySomeImproperFraction();
+        SearchBatch.Query<Fraction> addition = batch.fractionAdditionByUserId("2");
+        SearchBatch.Query<Fraction> missingAddition = batch.fractionAdditionByUserId("999");
+        SearchBatch.Query<Fraction> subtraction = batch.fractionSubtractionByUserName("Ana");
+        SearchBatch.Query<Map<String, Fraction>> sums = batch.fractionAdditionByUser();
+        SearchBatch.Query<Long> count = batch.add(Collectors.counting());
+        assertEquals(7, batch.size());
+        assertThrows(IllegalStateException.class, ids::result);
+
+        batch.run();
+        assertEquals(searches.findUserIdBySomeProperFraction().toList(), ids.result());
+        assertEquals(searches.findUserFamilyNameBySomeImproperFraction().toList(), familyNames.result());
+        assertEquals(searches.findFractionAdditionByUserId("2"), addition.result());
+        assertNull(missingAddition.result());
+        assertEquals(new Fraction(11, 30), subtraction.result());
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), List.copyOf(sums.result().keySet()));
+        sums.result().forEach((id, sum) -> assertEquals(searches.findFractionAdditionByUserId(id), sum));
+        assertEquals(6L, count.result());
+    }
+
+    @Test
+    void testBatch_overflowFailsOnlyItsQueries() {
+        Searches searches = new Searches(new UsersDatabase(List.of(
+                new User("1", "Ana", "Blanco", List.of(new Fraction(1, 2))),
+                new User("2", "Eva", "Ruiz", List.of(new Fraction(Integer.MAX_VALUE, 1), new Fraction(1, 1))))));
+        assertThrows(ArithmeticException.class, () -> searches.findFractionAdditionByUserId("2"));
+        SearchBatch batch = searches.parallel().batch();
+        SearchBatch.Query<Map<String, Fraction>> sums = batch.fractionAdditionByUser();
+        SearchBatch.Query<Fraction> overflowing = batch.fractionAdditionByUserId("2");
+        SearchBatch.Query<Fraction> addition = batch.fractionAdditionByUserId("1");
+        SearchBatch.Query<List<String>> ids = batch.userIdsBySomeProperFraction();
+        batch.run();
+        assertThrows(ArithmeticException.class, sums::result);
+        assertThrows(ArithmeticException.class, overflowing::result);
+        assertEquals(new Fraction(1, 2), addition.result());
+        assertEquals(List.of("1"), ids.result());
+    }
+
+    @Test
+    void testBatch_onePassMeasuredOnce() {
+        List<Searches.Measurement> measurements = new CopyOnWriteArrayList<>();
+        SearchBatch batch = new Searches(new UsersDatabase(), false, measurements::add).batch();
+        batch.userIdsBySomeProperFraction();
+        batch.userFamilyNamesBySomeImproperFraction();
+        batch.fractionAdditionByUser();
+        batch.run();
+
+        assertEquals(1, measurements.size());
+        assertEquals(new Searches.Measurement(Searches.SEARCH_BATCH, measurements.get(0).elapsedNanos(), 6, 19, 3),
+                measurements.get(0));
+    }
+
+    @Test
+    void testBatch_parallelSameResultsAndOrderAsSequential() {
+        Random random = new Random(13);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            List<Fraction> fractions = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                fractions.add(new Fraction(random.nextInt(-5, 6), random.nextInt(1, 6)));
+            }
+            users.add(new User(String.format("%05d", i), "Name" + random.nextInt(3), "Family" + i, fractions));
+        }
+        Searches sequential = new Searches(new UsersDatabase(users));
+        SearchBatch batch = sequential.parallel().batch();
+        SearchBatch.Query<List<String>> ids = batch.userIdsBySomeProperFraction();
+        SearchBatch.Query<List<String>> familyNames = batch.userFamilyNamesBySomeImproperFraction();
+        SearchBatch.Query<Fraction> subtraction = batch.fractionSubtractionByUserName("Name1");
+        SearchBatch.Query<Map<String, Fraction>> sums = batch.fractionAdditionByUser();
+        batch.run();
+
+        assertEquals(sequential.findUserIdBySomeProperFraction().toList(), ids.result());
+        assertEquals(sequential.findUserFamilyNameBySomeImproperFraction().toList(), familyNames.result());
+        assertEquals(sequential.findFractionSubtractionByUserName("Name1"), subtraction.result());
+        assertEquals(users.stream().filter(user -> !user.getFractions().isEmpty()).map(User::getId).toList(),
+                List.copyOf(sums.result().keySet()));
+        assertEquals(sequential.findFractionAdditionByUserId("00042"), sums.result().get("00042"));
+    }
+}
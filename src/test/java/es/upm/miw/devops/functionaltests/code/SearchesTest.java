@@ -3,12 +3,16 @@ package es.upm.miw.devops.functionaltests.code;
 import es.upm.miw.devops.code.Fraction;
 import es.upm.miw.devops.code.Searches;
 import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UserFraction;
 import es.upm.miw.devops.code.UsersDatabase;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -80,8 +84,8 @@ class SearchesTest {
         Searches searches = new Searches();
         Fraction result = searches.findFractionAdditionByUserId("4");
         assertNotNull(result);
-        assertEquals(16, result.getNumerator());
-        assertEquals(8, result.getDenominator());
+        assertEquals(2, result.getNumerator());
+        assertEquals(1, result.getDenominator());
     }
 
     @Test
@@ -152,6 +156,13 @@ class SearchesTest {
         assertEquals(6, result.getDenominator());
     }
 
+    @Test
+    void testAddition_intermediateOverflowIsPromoted() {
+        Searches searches = new Searches(new UsersDatabase(List.of(new User("B1", "Big", "Sum", List.of(
+                new Fraction(Integer.MAX_VALUE, 1), new Fraction(Integer.MAX_VALUE, 1), new Fraction(-Integer.MAX_VALUE, 1))))));
+        assertEquals(new Fraction(Integer.MAX_VALUE, 1), searches.findFractionAdditionByUserId("B1"));
+    }
+
     @Test
     void testSomeProper_withRealDatabase() {
         Searches searches = new Searches();
@@ -235,8 +246,8 @@ class SearchesTest {
     void testSubtraction_userFound_singleUser() {
         Fraction result = searches.findFractionSubtractionByUserName("Ana");
         assertNotNull(result);
-        assertEquals(22, result.getNumerator());
-        assertEquals(60, result.getDenominator());
+        assertEquals(11, result.getNumerator());
+        assertEquals(30, result.getDenominator());
     }
 
     @Test
@@ -258,5 +269,96 @@ class SearchesTest {
         assertThrows(NullPointerException.class,
                 () -> searches.findFractionSubtractionByUserName(null));
     }
-}
 
+    @Test
+    void testParallel_sameResultsAndOrderAsSequential() {
+        Random random = new Random(11);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            List<Fraction> fractions = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                fractions.add(new Fraction(random.nextInt(-5, 6), random.nextInt(1, 6)));
+            }
+            users.add(new User(String.format("%05d", i), "Name" + random.nextInt(3), "Family" + i, fractions));
+        }
+        Searches sequential = new Searches(new UsersDatabase(users));
+        Searches parallel = sequential.parallel();
+        assertTrue(parallel.isParallel());
+        assertFalse(parallel.sequential().isParallel());
+
+        assertEquals(sequential.findUserIdBySomeProperFraction().toList(),
+                parallel.findUserIdBySomeProperFraction().toList());
+        assertEquals(sequential.findUserFamilyNameBySomeImproperFraction().toList(),
+                parallel.findUserFamilyNameBySomeImproperFraction().toList());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sequential.findFractionSubtractionByUserName("Name" + i),
+                    parallel.findFractionSubtractionByUserName("Name" + i));
+        }
+        assertEquals(sequential.findFractionAdditionByUserId("00042"), parallel.findFractionAdditionByUserId("00042"));
+    }
+
+    @Test
+    void testSubtraction_parallelOverRealDatabase() {
+        Searches parallel = new Searches().parallel();
+        assertEquals(new Fraction(11, 30), parallel.findFractionSubtractionByUserName("Ana"));
+        assertEquals(new Fraction(0, 0), parallel.findFractionSubtractionByUserName("Paula"));
+        assertNull(parallel.findFractionSubtractionByUserName("Daniela"));
+    }
+
+    @Test
+    void testMeasurements_eagerSearches() {
+        List<Searches.Measurement> measurements = new CopyOnWriteArrayList<>();
+        Searches measured = new Searches(new UsersDatabase(), false, measurements::add);
+        measured.findFractionAdditionByUserId("2");
+        measured.findFractionAdditionByUserId("999");
+        measured.findFractionSubtractionByUserName("Paula");
+
+        assertEquals(List.of(Searches.FRACTION_ADDITION_BY_USER_ID, Searches.FRACTION_ADDITION_BY_USER_ID,
+                Searches.FRACTION_SUBTRACTION_BY_USER_NAME), measurements.stream().map(Searches.Measurement::search).toList());
+        assertEquals(List.of(1L, 0L, 2L), measurements.stream().map(Searches.Measurement::usersScanned).toList());
+        assertEquals(List.of(4L, 0L, 5L), measurements.stream().map(Searches.Measurement::fractionsScanned).toList());
+        assertEquals(List.of(1L, 0L, 1L), measurements.stream().map(Searches.Measurement::resultSize).toList());
+        assertTrue(measurements.stream().allMatch(measurement -> measurement.elapsedNanos() > 0));
+    }
+
+    @Test
+    void testMeasurements_streamsReportOnceWhenDrainedOrClosed() {
+        List<Searches.Measurement> measurements = new CopyOnWriteArrayList<>();
+        Searches measured = new Searches(new UsersDatabase(), false, measurements::add);
+
+        Stream<String> ids = measured.findUserIdBySomeProperFraction();
+        assertTrue(measurements.isEmpty());
+        assertEquals(4, ids.count());
+        ids.close();
+        assertEquals(1, measurements.size());
+        assertEquals(new Searches.Measurement(Searches.USER_ID_BY_SOME_PROPER_FRACTION,
+                measurements.get(0).elapsedNanos(), 6, 19, 4), measurements.get(0));
+
+        try (Stream<String> familyNames = measured.findUserFamilyNameBySomeImproperFraction()) {
+            assertEquals(List.of("Fernandez"), familyNames.limit(1).toList());
+        }
+        assertEquals(2, measurements.size());
+        assertEquals(1, measurements.get(1).resultSize());
+
+        measured.parallel().findUserIdBySomeProperFraction().toList();
+        assertEquals(3, measurements.size());
+        assertEquals(6, measurements.get(2).usersScanned());
+        assertEquals(4, measurements.get(2).resultSize());
+    }
+
+    @Test
+    void testMeasurements_fractionIndexSearches() {
+        List<Searches.Measurement> measurements = new CopyOnWriteArrayList<>();
+        Searches measured = new Searches(new UsersDatabase(), false, measurements::add);
+
+        assertEquals(List.of("2", "1", "5", "3", "4", "6"), measured.findUserBySomeFractionBetween(new Fraction(-1, 5),
+                new Fraction(2, 1)).map(User::getId).toList());
+        assertEquals(List.of(new Fraction(2, 1)), measured.findLargestFractions(3).stream()
+                .map(UserFraction::fraction).skip(2).toList());
+
+        assertEquals(List.of(Searches.USER_BY_SOME_FRACTION_BETWEEN, Searches.LARGEST_FRACTIONS),
+                measurements.stream().map(Searches.Measurement::search).toList());
+        assertEquals(List.of(0L, 0L), measurements.stream().map(Searches.Measurement::usersScanned).toList());
+        assertEquals(List.of(6L, 3L), measurements.stream().map(Searches.Measurement::resultSize).toList());
+    }
+}
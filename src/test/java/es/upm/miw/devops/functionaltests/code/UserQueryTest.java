@@ -0,0 +1,150 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.CompiledUserQuery;
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.FractionFilter;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UserQuery;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static es.upm.miw.devops.code.FractionFilter.fractions;
+import static es.upm.miw.devops.code.UserQuery.users;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserQueryTest {
+
+    private final Searches searches = new Searches();
+
+    private List<String> ids(UserQuery query) {
+        return this.searches.find(query).map(User::getId).toList();
+    }
+
+    @Test
+    void testProperAndImproper_answeredFromCounts() {
+        assertEquals("scan counts[proper]", users().withSomeFraction(fractions().proper()).compile().plan());
+        assertEquals(this.searches.findUserIdBySomeProperFraction().toList(),
+                this.ids(users().withSomeFraction(fractions().proper())));
+        assertEquals("scan counts[improper]", users().withSomeFraction(fractions().improper()).compile().plan());
+        assertEquals(List.of("1", "2", "6"), this.ids(users().withSomeFraction(fractions().improper())));
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), this.ids(users()));
+    }
+
+    @Test
+    void testIndexesAndFractionConditions() {
+        UserQuery byNameAndDecimal = users().name("Oscar").withSomeFraction(fractions().decimalBetween(0.4, 0.6));
+        assertEquals("byName(Oscar) counts[proper] fractions", byNameAndDecimal.compile().plan());
+        assertEquals(List.of("3"), this.ids(byNameAndDecimal));
+
+        UserQuery equivalent = users().withSomeFraction(fractions().equivalentTo(new Fraction(3, 3)));
+        assertEquals("scan counts[neither] fractions", equivalent.compile().plan());
+        assertEquals(List.of("1", "3", "4", "6"), this.ids(equivalent));
+
+        UserQuery infinity = users().familyName("Torres").withSomeFraction(fractions().equivalentTo(new Fraction(5, 0)));
+        assertEquals("byFamilyName(Torres) counts[improper] fractions", infinity.compile().plan());
+        assertEquals(List.of("6"), this.ids(infinity));
+
+        assertEquals(List.of("2", "3"), this.ids(users().withSomeFraction(fractions().numeratorBetween(-1, -1))));
+        assertEquals(List.of("2", "3"), this.ids(users().withSomeFraction(fractions().proper().denominatorBetween(3, 5))));
+        assertEquals(List.of("2"), this.ids(users().id("2").name("Ana")));
+        assertEquals(List.of(), this.ids(users().id("2").name("Oscar")));
+        assertEquals(List.of("4", "6"), this.ids(users().name("Paula").familyName("Torres")
+                .withSomeFraction(fractions().numeratorBetween(1, 1).denominatorBetween(1, 1))));
+    }
+
+    @Test
+    void testContradictions_matchNothing() {
+        assertEquals("none", users().withSomeFraction(fractions().proper().improper()).compile().plan());
+        assertEquals("none", users().withSomeFraction(fractions().equivalentTo(new Fraction(1, 2)).improper())
+                .compile().plan());
+        assertEquals("none", users().withSomeFraction(fractions().equivalentTo(new Fraction(1, 2))
+                .equivalentTo(new Fraction(1, 3))).compile().plan());
+        assertEquals(List.of(), this.ids(users().withSomeFraction(fractions().numeratorBetween(3, 2))));
+        assertEquals(List.of(), this.ids(users().withSomeFraction(fractions().equivalentTo(new Fraction(1, 2))
+                .numeratorBetween(2, 5))));
+    }
+
+    @Test
+    void testFractionAddition_fromPrecomputedSums() {
+        CompiledUserQuery blanco = users().familyName("Blanco").compile();
+        assertEquals(this.searches.findFractionAdditionByUserId("2").add(this.searches.findFractionAdditionByUserId("5")),
+                this.searches.findFractionAddition(blanco));
+        assertNull(this.searches.findFractionAddition(users().name("Nobody").compile()));
+        assertEquals(this.searches.findFractionAdditionByUserId("3"), this.searches.parallel()
+                .findFractionAddition(users().name("Oscar").withSomeFraction(fractions().decimalBetween(0.4, 0.6))
+                        .compile()));
+    }
+
+    @Test
+    void testRandomQueries_sameUsersAsHandWrittenPipelines() {
+        Random random = new Random(17);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            List<Fraction> fractions = new ArrayList<>();
+            for (int j = random.nextInt(5); j > 0; j--) {
+                fractions.add(new Fraction(random.nextInt(-6, 7), random.nextInt(-3, 7)));
+            }
+            users.add(new User(String.format("%05d", i), "Name" + random.nextInt(4), "Family" + random.nextInt(9),
+                    fractions));
+        }
+        Searches sequential = new Searches(new UsersDatabase(users));
+        for (int i = 0; i < 200; i++) {
+            FractionFilter filter = fractions();
+            Predicate<Fraction> expected = Objects::nonNull;
+            if (random.nextBoolean()) {
+                int min = random.nextInt(-6, 7);
+                int max = min + random.nextInt(4);
+                filter = filter.numeratorBetween(min, max);
+                expected = expected.and(fraction -> fraction.getNumerator() >= min && fraction.getNumerator() <= max);
+            }
+            if (random.nextInt(3) == 0) {
+                int min = random.nextInt(0, 4);
+                int max = min + random.nextInt(4);
+                filter = filter.denominatorBetween(min, max);
+                expected = expected.and(fraction -> fraction.getDenominator() >= min && fraction.getDenominator() <= max);
+            }
+            if (random.nextInt(3) == 0) {
+                filter = filter.proper();
+                expected = expected.and(Fraction::isProper);
+            } else if (random.nextInt(3) == 0) {
+                filter = filter.improper();
+                expected = expected.and(Fraction::isImproper);
+            }
+            if (random.nextInt(3) == 0) {
+                double min = random.nextInt(-8, 8) / 4.0;
+                double max = min + random.nextInt(6) / 4.0;
+                filter = filter.decimalBetween(min, max);
+                expected = expected.and(fraction -> fraction.decimal() >= min && fraction.decimal() <= max);
+            }
+            if (random.nextInt(4) == 0) {
+                Fraction equivalent = new Fraction(random.nextInt(-3, 4), random.nextInt(0, 4));
+                filter = filter.equivalentTo(equivalent);
+                expected = expected.and(equivalent::isEquivalent);
+            }
+            UserQuery query = users().withSomeFraction(filter);
+            Predicate<User> expectedUser = user -> true;
+            if (random.nextBoolean()) {
+                String name = "Name" + random.nextInt(4);
+                query = query.name(name);
+                expectedUser = user -> name.equals(user.getName());
+            }
+            Predicate<Fraction> someFraction = expected;
+            Predicate<User> byFields = expectedUser;
+            List<String> handWritten = users.stream()
+                    .filter(byFields)
+                    .filter(user -> user.getFractions().stream().anyMatch(someFraction))
+                    .map(User::getId).toList();
+            CompiledUserQuery compiled = query.compile();
+            assertEquals(handWritten, sequential.find(compiled).map(User::getId).toList(), compiled.toString());
+            assertEquals(handWritten, sequential.parallel().find(compiled).map(User::getId).toList(),
+                    compiled.toString());
+        }
+    }
+}
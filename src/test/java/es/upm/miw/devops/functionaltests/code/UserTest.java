@@ -1,12 +1,20 @@
 package es.upm.miw.devops.functionaltests.code;
 
+import es.upm.miw.devops.code.AdaptiveFraction;
 import es.upm.miw.devops.code.User;
 import es.upm.miw.devops.code.Fraction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +57,120 @@ class UserTest {
         assertEquals(2, user.getFractions().size());
     }
 
+    @Test
+    void testFractions_growAndKeepOrder() {
+        User growing = new User();
+        for (int i = 1; i <= 100; i++) {
+            growing.addFraction(new Fraction(i, 3));
+        }
+        assertEquals(100, growing.getFractions().size());
+        assertEquals(new Fraction(1, 3), growing.getFractions().get(0));
+        assertEquals(new Fraction(100, 3), growing.getFractions().get(99));
+    }
+
+    @Test
+    void testFractions_concurrentAppendsWhileReading() throws Exception {
+        int writers = 4;
+        int perWriter = 5_000;
+        User shared = new User("9", "Rosa", "Vidal", List.of(new Fraction(1, 2)));
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int numerator = w + 1;
+                appends.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        shared.addFraction(new Fraction(numerator + 7 * (i % 2), 7)); // half proper, half improper
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> reads = executor.submit(() -> {
+                start.await();
+                int snapshots = 0;
+                do {
+                    List<Fraction> snapshot = shared.getFractions();
+                    int size = snapshot.size();
+                    assertEquals(new Fraction(1, 2), snapshot.get(0));
+                    assertEquals(size, snapshot.stream().filter(fraction -> fraction.getDenominator() > 0).count());
+                    assertEquals(size, snapshot.size());
+                    snapshots++;
+                } while (writing.get());
+                return snapshots;
+            });
+            start.countDown();
+            for (Future<?> append : appends) {
+                append.get();
+            }
+            writing.set(false);
+            assertTrue(reads.get() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Fraction> fractions = shared.getFractions();
+        assertEquals(1 + writers * perWriter, fractions.size());
+        for (int w = 1; w <= writers; w++) {
+            int numerator = w;
+            assertEquals(perWriter, fractions.stream().skip(1).filter(f -> f.getNumerator() % 7 == numerator).count());
+        }
+        assertAggregatesMatchRecomputation(shared);
+    }
+
+    @Test
+    void testFractions_nullsAreSkipped() {
+        User withNulls = new User("2", "Ana", "Blanco", Arrays.asList(null, new Fraction(1, 2), null));
+        assertEquals(List.of(new Fraction(1, 2)), withNulls.getFractions());
+        withNulls.addFraction(null);
+        assertEquals(1, withNulls.getFractions().size());
+    }
+
+    @Test
+    void testSetFractions() {
+        user.setFractions(List.of(new Fraction(7, 2), new Fraction(1, 4)));
+        assertEquals(List.of(new Fraction(7, 2), new Fraction(1, 4)), user.getFractions());
+    }
+
+    @Test
+    void testHasProperAndImproperFraction() {
+        assertFalse(user.hasProperFraction());
+        assertFalse(user.hasImproperFraction());
+        user.addFraction(new Fraction(1, 2));
+        assertTrue(user.hasProperFraction());
+        user.addFraction(new Fraction(-5, 2));
+        assertTrue(user.hasImproperFraction());
+    }
+
+    @Test
+    void testAggregates_matchRecomputation() {
+        Random random = new Random(3);
+        User aggregated = new User("7", "Eva", "Ruiz", List.of(new Fraction(1, 0), new Fraction(0, 0)));
+        assertAggregatesMatchRecomputation(aggregated);
+        aggregated.setFractions(new ArrayList<>());
+        for (int i = 0; i < 2_000; i++) {
+            aggregated.addFraction(new Fraction(random.nextInt(-9, 10), random.nextInt(-9, 10)));
+            if (i % 100 == 0) {
+                assertAggregatesMatchRecomputation(aggregated);
+            }
+        }
+        assertAggregatesMatchRecomputation(aggregated);
+        aggregated.setFractions(List.of(new Fraction(1, 2), new Fraction(3, 2)));
+        assertAggregatesMatchRecomputation(aggregated);
+    }
+
+    private static void assertAggregatesMatchRecomputation(User user) {
+        List<Fraction> fractions = user.getFractions();
+        assertEquals(fractions.stream().filter(Fraction::isProper).count(), user.properFractionCount());
+        assertEquals(fractions.stream().filter(Fraction::isImproper).count(), user.improperFractionCount());
+        assertEquals(fractions.stream().anyMatch(Fraction::isProper), user.hasProperFraction());
+        assertEquals(fractions.stream().anyMatch(Fraction::isImproper), user.hasImproperFraction());
+        assertEquals(fractions.stream().map(AdaptiveFraction::of).reduce(AdaptiveFraction.ZERO, AdaptiveFraction::add),
+                user.fractionSum());
+    }
+
     @Test
     void testFullName() {
         assertEquals("Juan Pérez", user.fullName());
@@ -0,0 +1,330 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UserFraction;
+import es.upm.miw.devops.code.UsersDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsersDatabaseTest {
+
+    @Test
+    void testFindAll_sampleUsers() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals(6, database.size());
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), database.findAll().map(User::getId).toList());
+    }
+
+    @Test
+    void testFindAllAfter_keysetCursor() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), database.findAllAfter(null).map(User::getId).toList());
+        assertEquals(List.of("4", "5", "6"), database.findAllAfter("3").map(User::getId).toList());
+        assertEquals(List.of("4", "5", "6"), database.findAllAfter("35").map(User::getId).toList());
+        assertTrue(database.findAllAfter("6").toList().isEmpty());
+    }
+
+    @Test
+    void testFindById() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals("Ana", database.findById("2").map(User::getName).orElseThrow());
+        assertTrue(database.findById("999").isEmpty());
+        assertThrows(NullPointerException.class, () -> database.findById(null));
+    }
+
+    @Test
+    void testSave_insertAndReplace() {
+        UsersDatabase database = new UsersDatabase(List.of());
+        database.save(new User("A", "Ana", "Blanco", List.of(new Fraction(1, 2))));
+        database.save(new User("A", "Ana", "Torres", List.of()));
+        assertEquals(1, database.size());
+        assertEquals("Torres", database.findById("A").map(User::getFamilyName).orElseThrow());
+    }
+
+    @Test
+    void testDeleteById() {
+        UsersDatabase database = new UsersDatabase();
+        assertTrue(database.deleteById("1").isPresent());
+        assertTrue(database.deleteById("1").isEmpty());
+        assertEquals(5, database.size());
+    }
+
+    @Test
+    void testAddFraction_appendsToStoredUser() {
+        UsersDatabase database = new UsersDatabase();
+        User before = database.findById("4").orElseThrow();
+        List<Fraction> fractions = before.getFractions();
+        User after = database.addFraction("4", new Fraction(1, 3)).orElseThrow();
+        assertSame(before, after);
+        assertEquals(2, fractions.size());
+        assertEquals(3, after.getFractions().size());
+        assertSame(after, database.findById("4").orElseThrow());
+        assertTrue(database.addFraction("999", new Fraction()).isEmpty());
+    }
+
+    @Test
+    void testSetFractions() {
+        UsersDatabase database = new UsersDatabase();
+        database.setFractions("1", List.of(new Fraction(5, 3)));
+        assertEquals(1, database.findById("1").orElseThrow().getFractions().size());
+    }
+
+    @Test
+    void testFindByName_andFamilyName() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals(List.of("4", "6"), database.findByName("Paula").map(User::getId).toList());
+        assertEquals(List.of("2", "5"), database.findByFamilyName("Blanco").map(User::getId).toList());
+        assertEquals(List.of(), database.findByName("Daniela").toList());
+        assertThrows(NullPointerException.class, () -> database.findByName(null));
+    }
+
+    @Test
+    void testIndexes_followRenameAndDelete() {
+        UsersDatabase database = new UsersDatabase();
+        User user = database.findById("4").orElseThrow();
+        user.setName("Ana");
+        user.setFamilyName("Gómez");
+        database.save(user);
+        assertEquals(List.of("6"), database.findByName("Paula").map(User::getId).toList());
+        assertEquals(List.of("2", "4"), database.findByName("Ana").map(User::getId).toList());
+        assertEquals(List.of("4"), database.findByFamilyName("Gómez").map(User::getId).toList());
+
+        database.deleteById("6");
+        assertEquals(List.of(), database.findByName("Paula").toList());
+        assertEquals(List.of(), database.findByFamilyName("Torres").toList());
+    }
+
+    @Test
+    void testIndexes_followAddFraction() {
+        UsersDatabase database = new UsersDatabase();
+        User user = database.addFraction("2", new Fraction(1, 7)).orElseThrow();
+        assertSame(user, database.findByName("Ana").findFirst().orElseThrow());
+        assertSame(user, database.findByFamilyName("Blanco").findFirst().orElseThrow());
+    }
+
+    @Test
+    void testSave_replacedUserNeverMissingToReaders() throws InterruptedException {
+        UsersDatabase database = new UsersDatabase(List.of());
+        database.save(new User("A", "Ana", "Blanco", List.of()));
+        AtomicBoolean saving = new AtomicBoolean(true);
+        AtomicInteger missing = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (saving.get()) {
+                if (database.findById("A").isEmpty() || database.findByName("Ana").findAny().isEmpty()
+                        || database.findByFamilyName("Blanco").findAny().isEmpty()) {
+                    missing.incrementAndGet();
+                }
+            }
+        });
+        for (int i = 0; i < 20_000; i++) {
+            database.save(new User("A", "Ana", "Blanco", List.of()));
+        }
+        saving.set(false);
+        reader.join();
+        assertEquals(0, missing.get());
+    }
+
+    @Test
+    void testConcurrentWriters_keepIndexesAndSizeConsistent() throws InterruptedException {
+        UsersDatabase database = new UsersDatabase(List.of());
+        int threads = 8;
+        int usersPerThread = 500;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < usersPerThread; i++) {
+                    String id = thread + "-" + i;
+                    database.save(new User(id, "Name" + i % 3, "Family" + thread, List.of()));
+                    database.addFraction(id, new Fraction(1, 2));
+                    database.addFraction(id, new Fraction(3, 2));
+                    if (i % 5 == 0) {
+                        database.deleteById(id);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        int expected = threads * (usersPerThread - usersPerThread / 5);
+        assertEquals(expected, database.size());
+        assertEquals(expected, database.findAll().count());
+        assertTrue(database.findAll().allMatch(user -> user.getFractions().size() == 2));
+        assertEquals(expected, database.findByName("Name0").count() + database.findByName("Name1").count()
+                + database.findByName("Name2").count());
+        assertEquals(expected / threads, database.findByFamilyName("Family3").count());
+    }
+
+    @Test
+    void testFractionIndex_sampleUsers() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals(19, database.fractionCount());
+        assertEquals(List.of("2", "3", "1", "4", "6"),
+                database.findBySomeFractionBetween(new Fraction(1, 2), new Fraction(1, 1)).map(User::getId).toList());
+        List<UserFraction> largest = database.findLargestFractions(4);
+        assertEquals(List.of("6", "6", "2", "1"), largest.stream().map(fraction -> fraction.user().getId()).toList());
+        assertEquals(List.of(new Fraction(0, 0), new Fraction(1, 0), new Fraction(2, 1), new Fraction(2, 1)),
+                largest.stream().map(UserFraction::fraction).toList());
+        assertEquals(2, database.countFractionsBelow(new Fraction(0, 1)));
+        assertEquals(9, database.countFractionsBelow(new Fraction(1, 1)));
+        assertEquals(new Fraction(-1, 2), database.findFractionByRank(0).orElseThrow().fraction());
+        assertEquals("3", database.findFractionByRank(0).orElseThrow().user().getId());
+        assertEquals(new Fraction(0, 0), database.findFractionByRank(18).orElseThrow().fraction());
+        assertTrue(database.findFractionByRank(19).isEmpty());
+        assertTrue(database.findFractionByRank(-1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> database.findLargestFractions(-1));
+    }
+
+    @Test
+    void testFractionIndex_followsWrites() {
+        UsersDatabase database = new UsersDatabase();
+        assertEquals(19, database.fractionCount());
+        database.addFraction("5", new Fraction(7, 2));
+        assertEquals(new Fraction(7, 2), database.findLargestFractions(3).get(2).fraction());
+        database.deleteById("6");
+        assertEquals(List.of(new UserFraction(database.findById("5").orElseThrow(), new Fraction(7, 2))),
+                database.findLargestFractions(1));
+        database.setFractions("5", List.of());
+        assertEquals("2", database.findLargestFractions(1).getFirst().user().getId());
+        assertEquals(List.of("1"), database.findBySomeFractionBetween(new Fraction(0, 1), new Fraction(0, 1))
+                .map(User::getId).toList());
+        database.save(new User("7", "Eva", "Ruiz", List.of(new Fraction(-9, 1))));
+        assertEquals("7", database.findFractionByRank(0).orElseThrow().user().getId());
+        assertEquals(14, database.fractionCount());
+    }
+
+    @Test
+    void testFractionIndex_matchesSortedFractionsUnderRandomWrites() {
+        Random random = new Random(23);
+        UsersDatabase database = new UsersDatabase(List.of());
+        assertEquals(0, database.fractionCount());
+        for (int i = 0; i < 3_000; i++) {
+            String id = String.valueOf(random.nextInt(200));
+            switch (random.nextInt(6)) {
+                case 0 -> database.deleteById(id);
+                case 1 -> database.addFraction(id, randomFraction(random));
+                case 2 -> database.findById(id).ifPresent(user -> {
+                    user.addFraction(randomFraction(random));
+                    database.save(user);
+                });
+                case 3 -> database.findById(id).ifPresent(user -> {
+                    List<Fraction> fractions = new ArrayList<>(user.getFractions());
+                    fractions.subList(random.nextInt(fractions.size() + 1), fractions.size()).clear();
+                    fractions.add(randomFraction(random));
+                    user.setFractions(fractions);
+                    database.save(user);
+                });
+                default -> database.save(new User(id, "Name", "Family",
+                        random.ints(random.nextInt(5)).mapToObj(ignored -> randomFraction(random)).toList()));
+            }
+            if (i % 250 == 0) {
+                assertIndexMatchesSortedFractions(database, random);
+            }
+        }
+        assertIndexMatchesSortedFractions(database, random);
+    }
+
+    private static Fraction randomFraction(Random random) {
+        return new Fraction(random.nextInt(-6, 7), random.nextInt(-1, 5));
+    }
+
+    private static void assertIndexMatchesSortedFractions(UsersDatabase database, Random random) {
+        List<UserFraction> sorted = database.findAll()
+                .flatMap(user -> user.getFractions().stream().map(fraction -> new UserFraction(user, fraction)))
+                .sorted(Comparator.comparing(UserFraction::fraction)
+                        .thenComparing(fraction -> fraction.user().getId()))
+                .toList();
+        assertEquals(sorted.size(), database.fractionCount());
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            assertEquals(sorted.get(rank), database.findFractionByRank(rank).orElseThrow());
+        }
+        assertEquals(sorted.reversed().subList(0, Math.min(10, sorted.size())), database.findLargestFractions(10));
+        Fraction min = randomFraction(random);
+        Fraction max = randomFraction(random);
+        assertEquals(sorted.stream().filter(fraction -> fraction.fraction().compareTo(min) < 0).count(),
+                database.countFractionsBelow(min));
+        assertEquals(sorted.stream().filter(fraction -> fraction.fraction().compareTo(min) >= 0
+                        && fraction.fraction().compareTo(max) <= 0).map(UserFraction::user).distinct().toList(),
+                database.findBySomeFractionBetween(min, max).toList());
+    }
+
+    @Test
+    void testFractionIndex_concurrentWriters() throws InterruptedException {
+        UsersDatabase database = new UsersDatabase(List.of());
+        assertEquals(0, database.fractionCount());
+        int threads = 8;
+        int usersPerThread = 500;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < usersPerThread; i++) {
+                    String id = thread + "-" + i;
+                    database.save(new User(id, "Name", "Family", List.of(new Fraction(1, 2))));
+                    database.addFraction(id, new Fraction(3, 2));
+                    if (i % 5 == 0) {
+                        database.deleteById(id);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        int expected = threads * (usersPerThread - usersPerThread / 5);
+        assertEquals(2 * expected, database.fractionCount());
+        assertEquals(expected, database.countFractionsBelow(new Fraction(1, 1)));
+        assertEquals(expected, database.findBySomeFractionBetween(new Fraction(3, 2), new Fraction(2, 1)).count());
+    }
+
+    @Test
+    void testFractionIndex_builtWhileWritersRun() throws InterruptedException {
+        List<User> initial = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            initial.add(new User("initial-" + i, "Name", "Family", List.of(new Fraction(5, 1))));
+        }
+        UsersDatabase database = new UsersDatabase(initial);
+        int threads = 4;
+        int usersPerThread = 2_000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < usersPerThread; i++) {
+                    String id = thread + "-" + i;
+                    database.save(new User(id, "Name", "Family", List.of(new Fraction(1, 2))));
+                    database.addFraction(id, new Fraction(3, 2));
+                    database.addFraction("initial-" + (thread * usersPerThread + i), new Fraction(7, 1));
+                    if (i % 5 == 0) {
+                        database.deleteById(id);
+                    }
+                }
+            }));
+        }
+        assertTrue(database.fractionCount() >= initial.size());
+        assertTrue(database.statistics().fractions() >= initial.size());
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        int expected = threads * (usersPerThread - usersPerThread / 5);
+        int appended = threads * usersPerThread;
+        assertEquals(initial.size() + appended + 2 * expected, database.fractionCount());
+        assertEquals(expected, database.countFractionsBelow(new Fraction(1, 1)));
+        assertEquals(appended, database.countFractionsBelow(new Fraction(8, 1))
+                - database.countFractionsBelow(new Fraction(6, 1)));
+        // Users deleted before the statistics were built are the only fractions they miss
+        long counted = database.statistics().fractions();
+        assertTrue(counted >= database.fractionCount() && counted <= initial.size() + appended
+                + 2L * threads * usersPerThread, () -> "counted " + counted);
+    }
+}
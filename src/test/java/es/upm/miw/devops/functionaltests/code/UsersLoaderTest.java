@@ -0,0 +1,130 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsersLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLoadCsv() throws IOException {
+        Path file = Files.writeString(this.directory.resolve("users.csv"), """
+                1,Oscar,Fernandez,0/1,1/1,2/1
+                2,Ana,Blanco,2/1,-1/5,2/4,4/3\r
+
+                3,Oscar,López
+                4,Paula,Torres,1/0""");
+        UsersDatabase database = new UsersDatabase(List.of());
+        UsersLoader.Progress progress = new UsersLoader(database).load(file, UsersLoader.Format.CSV);
+
+        assertEquals(4, progress.users());
+        assertEquals(8, progress.fractions());
+        assertEquals(Files.size(file), progress.bytes());
+        assertEquals(List.of("1", "2", "3", "4"), database.findAll().map(User::getId).toList());
+        User ana = database.findById("2").orElseThrow();
+        assertEquals("Blanco", ana.getFamilyName());
+        assertEquals(List.of(new Fraction(2, 1), new Fraction(-1, 5), new Fraction(1, 2), new Fraction(4, 3)),
+                ana.getFractions());
+        assertEquals("López", database.findById("3").orElseThrow().getFamilyName());
+        assertTrue(database.findById("3").orElseThrow().getFractions().isEmpty());
+        assertEquals(List.of(new Fraction(1, 0)), database.findById("4").orElseThrow().getFractions());
+    }
+
+    @Test
+    void testLoadNdjson() throws IOException {
+        Path file = Files.writeString(this.directory.resolve("users.ndjson"), """
+                {"id":"1","name":"Oscar","familyName":"Fernandez","fractions":[{"numerator":0,"denominator":1},{"numerator":2,"denominator":4}]}
+                { "fractions" : [ null, { "denominator" : -6, "numerator" : 3 } ], "extra": {"a": [1, "]"]}, "id": "2", "name": "Ana \\"A\\" \\u00d1", "familyName": null }
+                {"id":"3","name":"Eva","familyName":"Ruiz","fractions":[]}
+                """);
+        UsersDatabase database = new UsersDatabase(List.of());
+        UsersLoader.Progress progress = new UsersLoader(database).load(file, UsersLoader.Format.NDJSON);
+
+        assertEquals(3, progress.users());
+        assertEquals(3, progress.fractions());
+        assertEquals(List.of(new Fraction(0, 1), new Fraction(1, 2)), database.findById("1").orElseThrow().getFractions());
+        User ana = database.findById("2").orElseThrow();
+        assertEquals("Ana \"A\" Ñ", ana.getName());
+        assertNull(ana.getFamilyName());
+        assertEquals(List.of(new Fraction(-1, 2)), ana.getFractions());
+        assertTrue(database.findById("3").orElseThrow().getFractions().isEmpty());
+    }
+
+    @Test
+    void testLoadLargeFile_recordsSpanBufferBoundariesAndProgressIsReported() throws IOException {
+        Path file = this.directory.resolve("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < 250_000; i++) {
+                writer.write(i + ",Name" + i % 10 + ",Family,1/2,3/4\n");
+            }
+        }
+        List<UsersLoader.Progress> reports = new ArrayList<>();
+        UsersDatabase database = new UsersDatabase(List.of());
+        UsersLoader.Progress progress = new UsersLoader(database, reports::add).load(file, UsersLoader.Format.CSV);
+
+        assertEquals(250_000, database.size());
+        assertEquals(500_000, progress.fractions());
+        assertEquals(Files.size(file), progress.bytes());
+        assertEquals(List.of(100_000L, 200_000L, 250_000L), reports.stream().map(UsersLoader.Progress::users).toList());
+        assertTrue(progress.usersPerSecond() > 0);
+        assertTrue(progress.megabytesPerSecond() > 0);
+        assertEquals(new Fraction(5, 4), database.findById("123456").orElseThrow().fractionSum().toFraction());
+    }
+
+    @Test
+    void testLoadLongRecord_growsBuffer() throws IOException {
+        StringBuilder record = new StringBuilder("1,Long,Record");
+        for (int i = 0; i < 300_000; i++) {
+            record.append(",1/3");
+        }
+        Path file = Files.writeString(this.directory.resolve("long.csv"), record);
+        UsersDatabase database = new UsersDatabase(List.of());
+        new UsersLoader(database).load(file, UsersLoader.Format.CSV);
+        assertEquals(new Fraction(100_000, 1), database.findById("1").orElseThrow().fractionSum().toFraction());
+    }
+
+    @Test
+    void testLoadMalformed_reportsLine() throws IOException {
+        Path file = Files.writeString(this.directory.resolve("bad.csv"), "1,Ana,Blanco,1/2\n2,Eva,Ruiz,1-2\n");
+        UsersLoader loader = new UsersLoader(new UsersDatabase(List.of()));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> loader.load(file, UsersLoader.Format.CSV));
+        assertTrue(exception.getMessage().contains("line 2"));
+
+        Path json = Files.writeString(this.directory.resolve("bad.ndjson"), "{\"name\":\"Ana\"}\n");
+        assertThrows(IllegalArgumentException.class, () -> loader.load(json, UsersLoader.Format.NDJSON));
+    }
+
+    @Test
+    void testLoadInvalidFractions_reportLine() throws IOException {
+        UsersLoader loader = new UsersLoader(new UsersDatabase(List.of()));
+        Path missing = Files.writeString(this.directory.resolve("missing.ndjson"),
+                "{\"id\":\"1\",\"fractions\":[]}\n{\"id\":\"2\",\"fractions\":[{\"numerator\":1}]}\n");
+        assertEquals("Malformed record at line 2: missing denominator", assertThrows(IllegalArgumentException.class,
+                () -> loader.load(missing, UsersLoader.Format.NDJSON)).getMessage());
+
+        Path overflow = Files.writeString(this.directory.resolve("overflow.ndjson"),
+                "{\"id\":\"1\",\"fractions\":[{\"numerator\":-2147483648,\"denominator\":-1}]}\n");
+        assertEquals("Malformed record at line 1: -2147483648/-1 out of range", assertThrows(
+                IllegalArgumentException.class, () -> loader.load(overflow, UsersLoader.Format.NDJSON)).getMessage());
+
+        Path csv = Files.writeString(this.directory.resolve("overflow.csv"), "1,Ana,Blanco,-2147483648/-1\n");
+        assertTrue(assertThrows(IllegalArgumentException.class, () -> loader.load(csv, UsersLoader.Format.CSV))
+                .getMessage().startsWith("Malformed record at line 1"));
+    }
+}
@@ -0,0 +1,175 @@
+package es.upm.miw.devops.functionaltests.code;
+
+import es.upm.miw.devops.code.Fraction;
+import es.upm.miw.devops.code.Searches;
+import es.upm.miw.devops.code.User;
+import es.upm.miw.devops.code.UsersDatabase;
+import es.upm.miw.devops.code.UsersSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsersSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndRead_sampleUsers() throws IOException {
+        Path file = this.directory.resolve("users.snapshot");
+        UsersDatabase original = new UsersDatabase();
+        UsersSnapshot.write(original, file);
+        UsersDatabase restored = UsersSnapshot.read(file, true);
+
+        assertEquals(original.size(), restored.size());
+        assertEquals(original.findAll().map(User::toString).toList(), restored.findAll().map(User::toString).toList());
+        Searches searches = new Searches(restored);
+        assertEquals(List.of("1", "2", "3", "5"), searches.findUserIdBySomeProperFraction().toList());
+        assertEquals(List.of("Fernandez", "Blanco", "Torres"), searches.findUserFamilyNameBySomeImproperFraction().toList());
+        assertEquals(new Fraction(2, 1), searches.findFractionAdditionByUserId("4"));
+        assertEquals(new Fraction(11, 30), searches.findFractionSubtractionByUserName("Ana"));
+    }
+
+    @Test
+    void testRead_nullNamesAndMutationsAfterRestore() throws IOException {
+        Path file = this.directory.resolve("users.snapshot");
+        List<User> users = new ArrayList<>();
+        users.add(new User("A", null, "Ñandú", List.of()));
+        users.add(new User("B", "Eva", null, List.of(new Fraction(3, 4), new Fraction(-9, 2))));
+        UsersSnapshot.write(new UsersDatabase(users), file);
+        UsersDatabase restored = UsersSnapshot.read(file);
+
+        assertNull(restored.findById("A").orElseThrow().getName());
+        assertEquals("Ñandú", restored.findById("A").orElseThrow().getFamilyName());
+        assertEquals(List.of("B"), restored.findByName("Eva").map(User::getId).toList());
+        User eva = restored.addFraction("B", new Fraction(1, 4)).orElseThrow();
+        assertEquals(List.of(new Fraction(3, 4), new Fraction(-9, 2), new Fraction(1, 4)), eva.getFractions());
+        assertEquals(new Fraction(-7, 2), eva.fractionSum().toFraction());
+        assertTrue(eva.hasProperFraction());
+        assertTrue(eva.hasImproperFraction());
+    }
+
+    @Test
+    void testRead_concurrentAppendsToMappedUser() throws Exception {
+        Path file = this.directory.resolve("users.snapshot");
+        UsersSnapshot.write(new UsersDatabase(List.of(new User("C", "Luis", "Gil",
+                List.of(new Fraction(1, 3), new Fraction(5, 3))))), file);
+        User luis = UsersSnapshot.read(file, true).findById("C").orElseThrow();
+        List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            appenders.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    luis.addFraction(new Fraction(1, 3));
+                }
+            }));
+        }
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+
+        assertEquals(4_002, luis.getFractions().size());
+        assertEquals(List.of(new Fraction(1, 3), new Fraction(5, 3)), luis.getFractions().subList(0, 2));
+        assertEquals(4_001, luis.properFractionCount());
+        assertEquals(1, luis.improperFractionCount());
+        assertEquals(new Fraction(4_006, 3), luis.fractionSum().toFraction());
+    }
+
+    @Test
+    void testWrite_replacesExistingSnapshot() throws IOException {
+        Path file = this.directory.resolve("users.snapshot");
+        UsersSnapshot.write(new UsersDatabase(), file);
+        UsersDatabase restored = UsersSnapshot.read(file);
+        restored.deleteById("1");
+        UsersSnapshot.write(restored, file);
+        assertEquals(5, UsersSnapshot.read(file, true).size());
+        try (var files = Files.list(this.directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testRead_rejectsForeignAndCorruptedFiles() throws IOException {
+        Path foreign = Files.writeString(this.directory.resolve("foreign"), "not a snapshot at all, really not");
+        assertThrows(IOException.class, () -> UsersSnapshot.read(foreign));
+
+        Path file = this.directory.resolve("users.snapshot");
+        UsersSnapshot.write(new UsersDatabase(), file);
+        overwrite(file, 45, 0x7F);
+        assertThrows(IOException.class, () -> UsersSnapshot.read(file));
+
+        UsersSnapshot.write(new UsersDatabase(), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> UsersSnapshot.read(file));
+    }
+
+    @Test
+    void testRead_rejectsCorruptedAndForgedHeaders() throws IOException {
+        Path file = this.directory.resolve("users.snapshot");
+        UsersSnapshot.write(new UsersDatabase(), file);
+        overwrite(file, 15, 0x7F);
+        assertThrows(IOException.class, () -> UsersSnapshot.read(file));
+
+        // Checksummed again, so only the bounds checks stand between the counts and the allocations
+        for (int offset : new int[]{8, 16, 24}) {
+            UsersSnapshot.write(new UsersDatabase(), file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(40);
+                channel.read(header, 0);
+                header.putLong(offset, Long.MAX_VALUE / 4);
+                CRC32C checksum = new CRC32C();
+                checksum.update(header.array(), 0, 36);
+                header.putInt(36, (int) checksum.getValue());
+                channel.write(header.flip(), 0);
+            }
+            assertThrows(IOException.class, () -> UsersSnapshot.read(file), () -> "header offset " + offset);
+        }
+    }
+
+    @Test
+    void testRead_checksEachPageWhenFirstLoaded() throws IOException {
+        Path file = this.directory.resolve("users.snapshot");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            users.add(new User(String.format("%05d", i), "Name", "Family", List.of(new Fraction(i, 1),
+                    new Fraction(1, 2), new Fraction(3, 2), new Fraction(-i, 7))));
+        }
+        UsersSnapshot.write(new UsersDatabase(users), file);
+        long pagesOffset;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(40);
+            channel.read(header, 0);
+            pagesOffset = header.getLong(16);
+        }
+        // Users 6144 to 8191 keep their fractions in the fourth page of 64 KiB
+        overwrite(file, pagesOffset + 3 * 65_536 + 1_000, 0x7F);
+
+        UsersDatabase restored = UsersSnapshot.read(file);
+        assertEquals(users.getFirst().getFractions(), restored.findById("00000").orElseThrow().getFractions());
+        assertEquals(users.getLast().getFractions(), restored.findById("19999").orElseThrow().getFractions());
+        User corrupted = restored.findById("07000").orElseThrow();
+        assertThrows(UncheckedIOException.class, corrupted::getFractions);
+        assertThrows(UncheckedIOException.class, corrupted::getFractions);
+        assertDoesNotThrow(corrupted::properFractionCount);
+        assertThrows(IOException.class, () -> UsersSnapshot.read(file, true));
+    }
+
+    private static void overwrite(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) value}), position);
+        }
+    }
+}